@@ -0,0 +1,60 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Запуск приложения для замеров: профиль test (H2 в памяти), без JMX и подробных журналов.
+ * Свойства передаются аргументами командной строки, чтобы они перекрывали application.properties,
+ * в том числе spring.datasource.* для замеров на PostgreSQL.
+ */
+final class BenchmarkApplication {
+    private static final String[] DEFAULTS = {
+            "spring.jmx.enabled=false",
+            "logging.level.root=WARN",
+            "logging.level.org.springframework.orm.jpa=WARN",
+            "logging.level.org.springframework.transaction=WARN",
+            "logging.level.org.springframework.transaction.interceptor=WARN",
+            "logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN"
+    };
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * Приложение без веб-сервера для замеров сервисов.
+     */
+    static ConfigurableApplicationContext start(String... properties) {
+        return run(WebApplicationType.NONE, properties);
+    }
+
+    /**
+     * Приложение со встроенным веб-сервером на свободном порту.
+     */
+    static ConfigurableApplicationContext startServer(String... properties) {
+        String[] withPort = Arrays.copyOf(properties, properties.length + 1);
+        withPort[properties.length] = "server.port=0";
+        return run(WebApplicationType.SERVLET, withPort);
+    }
+
+    private static ConfigurableApplicationContext run(WebApplicationType type, String... properties) {
+        List<String> args = new ArrayList<>();
+        for (String property : DEFAULTS) {
+            args.add("--" + property);
+        }
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        return new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("test")
+                .web(type)
+                .logStartupInfo(false)
+                .run(args.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.search.InvertedIndexItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Заполнение базы данных для замеров напрямую через JDBC: владельцы по ITEMS_PER_OWNER товаров,
+ * у каждого товара одно завершённое бронирование от владельца следующей группы.
+ */
+final class BenchmarkData {
+    static final int ITEMS_PER_OWNER = 10;
+    static final int MODELS = 5000;
+    static final String[] NAMES = {"Дрель", "Пила", "Отвёртка", "Молоток", "Рубанок", "Лобзик", "Шуруповёрт", "Стремянка"};
+    private static final int CHUNK = 10_000;
+    private static final int ALLOCATION_SIZE = 50;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Название товара i - NAMES[i % NAMES.length] и номер, описание содержит модель "m" + (1000 + i % MODELS),
+     * так что поиск по модели находит items / MODELS товаров.
+     */
+    static void seed(JdbcTemplate jdbcTemplate, int items) {
+        int owners = getOwners(items);
+        LocalDateTime created = LocalDateTime.now().minusDays(30);
+        insert(jdbcTemplate, "insert into users (id, name, email) values (?, ?, ?)", owners,
+                id -> new Object[]{id, "User" + id, "user" + id + "@mail.ru"});
+        insert(jdbcTemplate, "insert into items (id, name, description, available, owner_id) values (?, ?, ?, ?, ?)", items,
+                id -> new Object[]{id, NAMES[id % NAMES.length] + " " + id, "Модель m" + (1000 + id % MODELS),
+                        id % 10 != 0, (id - 1) / ITEMS_PER_OWNER + 1});
+        insert(jdbcTemplate, "insert into bookings (id, start_date, end_date, item_id, booker_id, status) values (?, ?, ?, ?, ?, ?)", items,
+                id -> new Object[]{id, Timestamp.valueOf(created.plusMinutes(id % 1000)), Timestamp.valueOf(created.plusDays(1)),
+                        id, ((id - 1) / ITEMS_PER_OWNER + 1) % owners + 1, "APPROVED"});
+        restart(jdbcTemplate, "users_seq", owners);
+        restart(jdbcTemplate, "items_seq", items);
+        restart(jdbcTemplate, "bookings_seq", items);
+    }
+
+    /**
+     * Заполняет поисковый индекс и подсказки названий товарами, добавленными в обход сервисов.
+     */
+    static void warmUpSearch(ApplicationContext context) {
+        context.getBeanProvider(InvertedIndexItemSearchEngine.class).ifAvailable(InvertedIndexItemSearchEngine::warmUp);
+        context.getBean(ItemNameSuggester.class).warmUp();
+    }
+
+    static int getOwners(int items) {
+        return (items + ITEMS_PER_OWNER - 1) / ITEMS_PER_OWNER;
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, String sql, int count, Row row) {
+        for (int from = 1; from <= count; from += CHUNK) {
+            List<Object[]> rows = new ArrayList<>(CHUNK);
+            for (int id = from; id < Math.min(from + CHUNK, count + 1); id++) {
+                rows.add(row.values(id));
+            }
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+
+    /**
+     * Оптимизатор pooled выдаёт id из блока (value - allocationSize, value], поэтому последовательность
+     * начинается на allocationSize дальше последнего вставленного id.
+     */
+    private static void restart(JdbcTemplate jdbcTemplate, String sequence, int lastId) {
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (lastId + ALLOCATION_SIZE + 1));
+    }
+
+    private interface Row {
+        Object[] values(int id);
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingExtendedDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Создание бронирований из 8 потоков: items = 1 - все потоки бронируют один товар и ждут блокировку его строки,
+ * items = 64 - конкуренции почти нет. Бронирования создаются в статусе WAITING и не пересекаются с подтверждёнными,
+ * поэтому каждый вызов завершается успешно.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class CreateBookingBenchmark {
+    @Param({"1", "64"})
+    private int items;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private ItemAvailabilityDto[] availability;
+    private Integer bookerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        UserService userService = context.getBean(UserService.class);
+        ItemService itemService = context.getBean(ItemService.class);
+        Integer ownerId = userService.createUser(new UserDto(null, "Owner", "owner@mail.ru")).getId();
+        bookerId = userService.createUser(new UserDto(null, "Booker", "booker@mail.ru")).getId();
+        availability = new ItemAvailabilityDto[items];
+        for (int i = 0; i < items; i++) {
+            ItemDto item = itemService.createItem(new ItemDto(null, "Дрель " + i, "Ударная дрель", true, ownerId, null),
+                    null, ownerId);
+            availability[i] = itemService.getItemAvailability(item.getId());
+        }
+        bookingService = context.getBean(BookingService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookingExtendedDto createBooking() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ItemAvailabilityDto item = availability[random.nextInt(availability.length)];
+        LocalDateTime start = LocalDateTime.now().plusDays(1).plusMinutes(random.nextInt(100_000));
+        return bookingService.createBooking(new BookingCreateDto(null, start, start.plusHours(1), item.getId(), bookerId, null),
+                item, bookerId);
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemExtendedDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Список товаров владельца и поиск товаров на базе H2 с items товарами.
+ * engine - реализация поиска (shareit.search.engine), кэш поиска отключён, чтобы замерять сам поиск.
+ * Поиск по модели "m1234" находит items / MODELS товаров, поиск по названию "дрел" - каждый восьмой товар.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ItemServiceBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    private int items;
+    @Param({"index", "database"})
+    private String engine;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private int owners;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("shareit.search.engine=" + engine, "shareit.search.cache.max-size=0");
+        BenchmarkData.seed(context.getBean(JdbcTemplate.class), items);
+        BenchmarkData.warmUpSearch(context);
+        itemService = context.getBean(ItemService.class);
+        owners = BenchmarkData.getOwners(items);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemExtendedDto> getItems() {
+        return itemService.getItems(ThreadLocalRandom.current().nextInt(owners) + 1, 0, BenchmarkData.ITEMS_PER_OWNER);
+    }
+
+    @Benchmark
+    public List<ItemDto> searchItemsByModel() {
+        return itemService.searchItems("m" + (1000 + ThreadLocalRandom.current().nextInt(BenchmarkData.MODELS)),
+                null, 0, 10, null);
+    }
+
+    @Benchmark
+    public List<ItemDto> searchItemsByName() {
+        return itemService.searchItems("дрел", null, 0, 10, null);
+    }
+
+    @Benchmark
+    public List<String> suggestItemNames() {
+        return itemService.suggestItemNames(BenchmarkData.NAMES[ThreadLocalRandom.current().nextInt(BenchmarkData.NAMES.length)]
+                .substring(0, 3), 10);
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingExtendedDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Сериализация BookingExtendedDto тем же ObjectMapper, что настраивает Spring Boot: одно бронирование и страница из 100.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+    private ObjectMapper objectMapper;
+    private BookingExtendedDto booking;
+    private List<BookingExtendedDto> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime now = LocalDateTime.now();
+        page = IntStream.range(0, 100)
+                .mapToObj(i -> new BookingExtendedDto(i, now.plusDays(i), now.plusDays(i + 1),
+                        new ItemDto(i, "Дрель " + i, "Ударная дрель", true, 1, null),
+                        new UserDto(2, "Booker", "booker@mail.ru"), "APPROVED"))
+                .collect(Collectors.toList());
+        booking = page.get(0);
+    }
+
+    @Benchmark
+    public String serializeBooking() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(booking);
+    }
+
+    @Benchmark
+    public byte[] serializeBookingPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
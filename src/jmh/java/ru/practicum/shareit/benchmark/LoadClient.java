@@ -0,0 +1,122 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Отправляет запросы нагрузки к приложению, заполненному {@link BenchmarkData}.
+ * Созданные бронирования ожидают подтверждения владельцем в очереди: APPROVE берёт бронирование из очереди,
+ * а если очередь пуста, создаёт новое.
+ */
+class LoadClient {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final String[] STATES = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
+    private static final LocalDateTime NEXT_YEAR = LocalDate.now().plusYears(1).withDayOfYear(1).atStartOfDay();
+    private static final int BOOKING_MINUTES = 30 * 24 * 60;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+    private final Queue<PendingBooking> pending = new ConcurrentLinkedQueue<>();
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final int items;
+    private final int owners;
+
+    LoadClient(ObjectMapper objectMapper, String baseUrl, int items) {
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.items = items;
+        this.owners = BenchmarkData.getOwners(items);
+    }
+
+    /**
+     * Выполняет запрос и возвращает код ответа HTTP.
+     */
+    int execute(LoadOperation operation) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (operation) {
+            case SEARCH:
+                return send(get("/items/search?from=0&size=10&text=m" + (1000 + random.nextInt(BenchmarkData.MODELS)),
+                        randomUser()));
+            case BOOKINGS:
+                return send(get("/bookings?from=0&size=10&state=" + STATES[random.nextInt(STATES.length)], randomUser()));
+            case ITEMS:
+                return send(get("/items?from=0&size=10", randomUser()));
+            case APPROVE:
+                PendingBooking booking = pending.poll();
+                if (booking != null) {
+                    return send(HttpRequest.newBuilder(URI.create(baseUrl + "/bookings/" + booking.id + "?approved=true"))
+                            .header(USER_HEADER, String.valueOf(booking.ownerId))
+                            .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                            .build());
+                }
+                return createBooking();
+            default:
+                return createBooking();
+        }
+    }
+
+    /**
+     * Бронирование доступного товара (id не кратен 10) владельцем следующей группы товаров на час
+     * в январе следующего года. Формат дат BookingCreateDto (yyyy-MM-DD) записывает день года,
+     * а разбирается как день месяца, поэтому API принимает только январские даты.
+     */
+    private int createBooking() throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int itemId = random.nextInt(items) + 1;
+        if (itemId % 10 == 0) {
+            itemId--;
+        }
+        int ownerId = (itemId - 1) / BenchmarkData.ITEMS_PER_OWNER + 1;
+        int bookerId = ownerId % owners + 1;
+        LocalDateTime start = NEXT_YEAR.plusMinutes(random.nextInt(BOOKING_MINUTES));
+        String body = objectMapper.writeValueAsString(
+                new BookingCreateDto(null, start, start.plusHours(1), itemId, null, null));
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/bookings"))
+                .header(USER_HEADER, String.valueOf(bookerId))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 200) {
+            pending.add(new PendingBooking(objectMapper.readTree(response.body()).get("id").asInt(), ownerId));
+        }
+        return response.statusCode();
+    }
+
+    private HttpRequest get(String path, int userId) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header(USER_HEADER, String.valueOf(userId))
+                .GET()
+                .build();
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private int randomUser() {
+        return ThreadLocalRandom.current().nextInt(owners) + 1;
+    }
+
+    private static final class PendingBooking {
+        private final int id;
+        private final int ownerId;
+
+        private PendingBooking(int id, int ownerId) {
+            this.id = id;
+            this.ownerId = ownerId;
+        }
+    }
+}
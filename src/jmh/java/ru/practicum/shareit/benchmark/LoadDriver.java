@@ -0,0 +1,264 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Нагрузочный прогон: запускает приложение со встроенным сервером, заполняет базу данных {@link BenchmarkData}
+ * и в течение duration отправляет из threads потоков смесь запросов {@link LoadOperation}.
+ * Задержки записываются в гистограммы HdrHistogram по операциям, итоги печатаются и сохраняются в JSON (result).
+ * <p>
+ * При rate = 0 каждый поток отправляет запросы один за другим. При rate > 0 запросы отправляются по расписанию
+ * с общей частотой rate в секунду, а задержка отсчитывается от запланированного момента отправки,
+ * чтобы медленные ответы не скрывали очередь запросов (coordinated omission).
+ * <p>
+ * Параметры передаются как --name=value: duration, warmup, threads, rate, items, seed, mix, result.
+ * Остальные аргументы передаются приложению, например --spring.datasource.url=jdbc:postgresql://localhost:5432/shareit.
+ */
+public final class LoadDriver {
+    private static final String DEFAULT_MIX = "search=40,bookings=25,items=20,create=10,approve=5";
+
+    private final Duration duration;
+    private final Duration warmup;
+    private final int threads;
+    private final int rate;
+    private final int items;
+    private final boolean seed;
+    private final Map<LoadOperation, Integer> mix;
+    private final File result;
+    private final List<String> applicationProperties;
+
+    private LoadDriver(Map<String, String> options, List<String> applicationProperties) {
+        this.duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "60s"));
+        this.warmup = DurationStyle.detectAndParse(options.getOrDefault("warmup", "10s"));
+        this.threads = Integer.parseInt(options.getOrDefault("threads", "16"));
+        this.rate = Integer.parseInt(options.getOrDefault("rate", "0"));
+        this.items = Integer.parseInt(options.getOrDefault("items", "10000"));
+        this.seed = Boolean.parseBoolean(options.getOrDefault("seed", "true"));
+        this.mix = parseMix(options.getOrDefault("mix", DEFAULT_MIX));
+        this.result = new File(options.getOrDefault("result", "target/load-result.json"));
+        this.applicationProperties = applicationProperties;
+        if (items < 2 * BenchmarkData.ITEMS_PER_OWNER) {
+            throw new IllegalArgumentException("Для нагрузки нужно не меньше " + 2 * BenchmarkData.ITEMS_PER_OWNER + " товаров.");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> applicationProperties = new ArrayList<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int separator = option.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Аргумент должен иметь вид --name=value: " + arg);
+            }
+            if (option.contains(".")) {
+                applicationProperties.add(option);
+            } else {
+                options.put(option.substring(0, separator), option.substring(separator + 1));
+            }
+        }
+        new LoadDriver(options, applicationProperties).run();
+    }
+
+    private void run() throws Exception {
+        try (ConfigurableApplicationContext context = BenchmarkApplication.startServer(
+                applicationProperties.toArray(new String[0]))) {
+            if (seed) {
+                BenchmarkData.seed(context.getBean(JdbcTemplate.class), items);
+                BenchmarkData.warmUpSearch(context);
+            }
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadClient client = new LoadClient(context.getBean(ObjectMapper.class), "http://localhost:" + port, items);
+            Map<LoadOperation, Stats> stats = generate(client);
+            report(stats);
+        }
+    }
+
+    private Map<LoadOperation, Stats> generate(LoadClient client) throws Exception {
+        LoadOperation[] operations = mix.keySet().toArray(new LoadOperation[0]);
+        int[] weights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            weights[i] = total;
+        }
+        int weightSum = total;
+        long startedAt = System.nanoTime();
+        long measureFrom = startedAt + warmup.toNanos();
+        long stopAt = measureFrom + duration.toNanos();
+        long interval = rate > 0 ? TimeUnit.SECONDS.toNanos(threads) / rate : 0;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Map<LoadOperation, Stats>>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long offset = interval * t / threads;
+            workers.add(executor.submit(() -> {
+                Map<LoadOperation, Stats> local = new EnumMap<>(LoadOperation.class);
+                long intended = startedAt + offset;
+                while (true) {
+                    long now = System.nanoTime();
+                    if (interval > 0) {
+                        if (intended > now) {
+                            LockSupport.parkNanos(intended - now);
+                        }
+                    } else {
+                        intended = now;
+                    }
+                    if (intended >= stopAt) {
+                        return local;
+                    }
+                    int pick = ThreadLocalRandom.current().nextInt(weightSum);
+                    int index = 0;
+                    while (weights[index] <= pick) {
+                        index++;
+                    }
+                    LoadOperation operation = operations[index];
+                    boolean failed;
+                    try {
+                        failed = client.execute(operation) >= 400;
+                    } catch (IOException e) {
+                        failed = true;
+                    }
+                    if (intended >= measureFrom) {
+                        local.computeIfAbsent(operation, key -> new Stats())
+                                .record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended), failed);
+                    }
+                    intended += interval;
+                }
+            }));
+        }
+        Map<LoadOperation, Stats> stats = new EnumMap<>(LoadOperation.class);
+        for (Future<Map<LoadOperation, Stats>> worker : workers) {
+            worker.get().forEach((operation, local) -> stats.computeIfAbsent(operation, key -> new Stats()).add(local));
+        }
+        executor.shutdown();
+        return stats;
+    }
+
+    private void report(Map<LoadOperation, Stats> stats) throws IOException {
+        Stats total = new Stats();
+        Map<String, Object> operations = new LinkedHashMap<>();
+        System.out.printf("%-22s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<LoadOperation, Stats> entry : stats.entrySet()) {
+            total.add(entry.getValue());
+            print(entry.getKey().getRequest(), entry.getValue());
+            operations.put(entry.getKey().name().toLowerCase(Locale.ROOT), toJson(entry.getKey().getRequest(), entry.getValue()));
+        }
+        print("total", total);
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("startedAt", LocalDateTime.now().minus(duration).minus(warmup).toString());
+        json.put("durationSeconds", duration.getSeconds());
+        json.put("warmupSeconds", warmup.getSeconds());
+        json.put("threads", threads);
+        json.put("rate", rate);
+        json.put("items", items);
+        json.put("mix", mix);
+        json.put("operations", operations);
+        json.put("total", toJson("total", total));
+        File directory = result.getAbsoluteFile().getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Не удалось создать каталог " + directory);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(result, json);
+        System.out.println("Результаты сохранены в " + result.getAbsolutePath());
+    }
+
+    private void print(String name, Stats stats) {
+        Histogram histogram = stats.histogram;
+        System.out.printf(Locale.ROOT, "%-22s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, histogram.getTotalCount(), stats.errors, histogram.getTotalCount() / (double) duration.getSeconds(),
+                percentile(histogram, 50), percentile(histogram, 90), percentile(histogram, 99), percentile(histogram, 99.9),
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    /**
+     * Итоги операции: число запросов и ошибок, задержки в микросекундах и гистограмма
+     * в сжатом формате HdrHistogram (base64), которую можно объединять и перестраивать после прогона.
+     */
+    private Map<String, Object> toJson(String request, Stats stats) {
+        Histogram histogram = stats.histogram;
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("mean", histogram.getMean());
+        latency.put("p50", histogram.getValueAtPercentile(50));
+        latency.put("p90", histogram.getValueAtPercentile(90));
+        latency.put("p99", histogram.getValueAtPercentile(99));
+        latency.put("p99.9", histogram.getValueAtPercentile(99.9));
+        latency.put("max", histogram.getMaxValue());
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("request", request);
+        json.put("count", histogram.getTotalCount());
+        json.put("errors", stats.errors);
+        json.put("throughput", histogram.getTotalCount() / (double) duration.getSeconds());
+        json.put("latencyMicros", latency);
+        json.put("histogram", Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length)));
+        return json;
+    }
+
+    private static double percentile(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static Map<LoadOperation, Integer> parseMix(String value) {
+        Map<LoadOperation, Integer> mix = new EnumMap<>(LoadOperation.class);
+        for (String part : value.split(",")) {
+            String[] weight = part.trim().split("=");
+            if (weight.length != 2) {
+                throw new IllegalArgumentException("Смесь запросов задаётся как name=weight через запятую: " + value);
+            }
+            int share = Integer.parseInt(weight[1].trim());
+            if (share > 0) {
+                mix.put(LoadOperation.valueOf(weight[0].trim().toUpperCase(Locale.ROOT)), share);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("В смеси запросов нет ни одной операции: " + value);
+        }
+        return mix;
+    }
+
+    private static final class Stats {
+        private final Histogram histogram = new Histogram(3);
+        private long errors;
+
+        private void record(long micros, boolean failed) {
+            histogram.recordValue(micros);
+            if (failed) {
+                errors++;
+            }
+        }
+
+        private void add(Stats other) {
+            histogram.add(other.histogram);
+            errors += other.errors;
+        }
+    }
+}
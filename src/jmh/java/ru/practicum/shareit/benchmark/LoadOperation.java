@@ -0,0 +1,22 @@
+package ru.practicum.shareit.benchmark;
+
+/**
+ * Запросы, из которых состоит нагрузка {@link LoadDriver}. Имя в смеси - name в нижнем регистре.
+ */
+enum LoadOperation {
+    SEARCH("GET /items/search"),
+    BOOKINGS("GET /bookings"),
+    ITEMS("GET /items"),
+    CREATE("POST /bookings"),
+    APPROVE("PATCH /bookings/{id}");
+
+    private final String request;
+
+    LoadOperation(String request) {
+        this.request = request;
+    }
+
+    String getRequest() {
+        return request;
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingExtendedDto;
+import ru.practicum.shareit.booking.dto.ItemBookingsDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemExtendedDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private Booking booking;
+    private Item item;
+    private ItemBookingsDto bookings;
+    private List<CommentDto> comments;
+
+    @Setup
+    public void setUp() {
+        User owner = new User(1, "Owner", "owner@mail.ru");
+        User booker = new User(2, "Booker", "booker@mail.ru");
+        item = new Item(1, "Дрель", "Ударная дрель", true, owner, null);
+        LocalDateTime now = LocalDateTime.now();
+        booking = new Booking(1, now.plusDays(1), now.plusDays(2), item, booker, Booking.BookingState.APPROVED);
+        bookings = new ItemBookingsDto(new BookingDto(1, 2), new BookingDto(3, 2));
+        comments = IntStream.range(0, 10)
+                .mapToObj(i -> new CommentDto(i, "Комментарий " + i, item.getId(), booker.getName(), now))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public BookingExtendedDto toBookingExtendedDto() {
+        return BookingMapper.toBookingExtendedDto(booking);
+    }
+
+    @Benchmark
+    public ItemExtendedDto toItemExtendedDto() {
+        return ItemMapper.toItemExtendedDto(item, bookings, comments);
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск товаров на PostgreSQL: триграммные индексы pg_trgm (trigram), инвертированный индекс в памяти (index)
+ * и исходный запрос like (database) на одной базе с items товарами, по умолчанию с миллионом.
+ * Нужна база PostgreSQL, в которой можно создать расширение pg_trgm; таблицы пересоздаются при запуске.
+ * Адрес базы и учётные данные передаются свойствами JVM форка, например:
+ * <pre>
+ * mvn -Pbenchmarks verify -DskipTests -Djmh.args="PostgresSearchBenchmark -jvmArgsAppend
+ *     '-Dspring.datasource.url=jdbc:postgresql://localhost:5432/shareit?reWriteBatchedInserts=true
+ *     -Dspring.datasource.username=shareit -Dspring.datasource.password=shareit'"
+ * </pre>
+ * Запросы те же, что в {@link ItemServiceBenchmark}, кэш поиска отключён.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PostgresSearchBenchmark {
+    private static final String URL_PROPERTY = "spring.datasource.url";
+
+    @Param({"1000000"})
+    private int items;
+    @Param({"trigram", "index", "database"})
+    private String engine;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = System.getProperty(URL_PROPERTY, "");
+        if (!url.startsWith("jdbc:postgresql:")) {
+            throw new IllegalStateException("Для замера на PostgreSQL задайте -D" + URL_PROPERTY + "=jdbc:postgresql://...");
+        }
+        context = BenchmarkApplication.start("spring.datasource.driver-class-name=org.postgresql.Driver",
+                "spring.sql.init.schema-locations=classpath:schema.sql,classpath:schema-trgm.sql",
+                "shareit.search.engine=" + engine,
+                "shareit.search.cache.max-size=0");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchmarkData.seed(jdbcTemplate, items);
+        jdbcTemplate.execute("ANALYZE");
+        BenchmarkData.warmUpSearch(context);
+        itemService = context.getBean(ItemService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> searchItemsByModel() {
+        return itemService.searchItems("m" + (1000 + ThreadLocalRandom.current().nextInt(BenchmarkData.MODELS)),
+                null, 0, 10, null);
+    }
+
+    @Benchmark
+    public List<ItemDto> searchItemsByName() {
+        return itemService.searchItems("дрел", null, 0, 10, null);
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+
+import java.lang.ref.Reference;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Память дерева подсказок на один товар: разница занятой кучи после сборки мусора до и после заполнения
+ * {@link ItemNameSuggester}, делённая на число товаров (счётчик retainedBytesPerItem).
+ * Названия такие же, как в {@link BenchmarkData#seed}. Счётчики суммируются по итерациям,
+ * поэтому измерение одно. Выделенную при заполнении память показывает запуск с -prof gc (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class SuggesterMemoryBenchmark {
+    @Param({"100000", "1000000"})
+    private int items;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long retainedBytesPerItem;
+    }
+
+    @Benchmark
+    public void fill(Footprint footprint) {
+        long before = usedHeap();
+        ItemNameSuggester suggester = new ItemNameSuggester(null);
+        for (int id = 1; id <= items; id++) {
+            String name = BenchmarkData.NAMES[id % BenchmarkData.NAMES.length] + " " + id;
+            suggester.itemSaved(new Item(id, name, "", true, null, null));
+        }
+        footprint.retainedBytesPerItem = (usedHeap() - before) / items;
+        Reference.reachabilityFence(suggester);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -17,9 +17,25 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "bookings", schema = "public")
 @ToString
+@NamedEntityGraph(name = Booking.GRAPH_EXTENDED, attributeNodes = {
+        @NamedAttributeNode(value = "item", subgraph = "item"),
+        @NamedAttributeNode("booker")
+}, subgraphs = {
+        @NamedSubgraph(name = "item", attributeNodes = {
+                @NamedAttributeNode("owner"),
+                @NamedAttributeNode(value = "request", subgraph = "request")
+        }),
+        @NamedSubgraph(name = "request", attributeNodes = @NamedAttributeNode("requestor"))
+})
 public class Booking {
+    /**
+     * Граф загрузки бронирования вместе с товаром, его владельцем, запросом и автором бронирования.
+     */
+    public static final String GRAPH_EXTENDED = "Booking.extended";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Integer id;
 
     @Column(name = "start_date", nullable = false)
@@ -5,10 +5,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingExtendedDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.service.BookingService;
-import ru.practicum.shareit.item.dto.ItemExtendedDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 /**
@@ -20,27 +22,32 @@ import java.util.List;
 public class BookingController {
     private final BookingService bookingService;
     private final ItemService itemService;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     @GetMapping()
     public List<BookingExtendedDto> getBookings(@RequestParam(required = false) String state,
                                                 @RequestParam(required = false) Integer from,
                                                 @RequestParam(required = false) Integer size,
-                                                @RequestHeader(required = false, value = "X-Sharer-User-Id") Integer userId) {
-        return bookingService.getBookings(userId, state, from, size);
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestHeader(required = false, value = "X-Sharer-User-Id") Integer userId,
+                                                HttpServletResponse response) {
+        return withNextCursor(bookingService.getBookingsPage(userId, state, from, size, cursor), response);
     }
 
     @GetMapping("/owner")
     public List<BookingExtendedDto> getOwnerBookings(@RequestParam(required = false) String state,
                                                      @RequestParam(required = false) Integer from,
                                                      @RequestParam(required = false) Integer size,
-                                                     @RequestHeader(required = false, value = "X-Sharer-User-Id") Integer userId) {
-        return bookingService.getOwnersBookings(userId, state, from, size);
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestHeader(required = false, value = "X-Sharer-User-Id") Integer userId,
+                                                     HttpServletResponse response) {
+        return withNextCursor(bookingService.getOwnersBookingsPage(userId, state, from, size, cursor), response);
     }
 
     @PostMapping()
     public BookingExtendedDto createBooking(@RequestBody BookingCreateDto bookingDto,
                                             @RequestHeader(required = false, value = "X-Sharer-User-Id") Integer userId) {
-        ItemExtendedDto item = itemService.getItem(bookingDto.getItemId(), userId);
+        ItemAvailabilityDto item = itemService.getItemAvailability(bookingDto.getItemId());
         return bookingService.createBooking(bookingDto, item, userId);
     }
 
@@ -57,4 +64,11 @@ public class BookingController {
         return bookingService.getBooking(bookingId, userId);
     }
 
+    private List<BookingExtendedDto> withNextCursor(BookingPageDto page, HttpServletResponse response) {
+        if (page.getNextCursor() != null) {
+            response.setHeader(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return page.getBookings();
+    }
+
 }
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.dto;
+
+public interface ItemBookingView {
+    Integer getId();
+
+    Integer getItemId();
+
+    Integer getBookerId();
+
+    String getKind();
+}
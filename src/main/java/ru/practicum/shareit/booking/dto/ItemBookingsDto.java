@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Последнее завершившееся и ближайшее следующее бронирование товара.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBookingsDto {
+    private BookingDto lastBooking;
+    private BookingDto nextBooking;
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.utils.PageCursor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Параметры выборки бронирований: чьи бронирования (автора или владельца товара),
+ * по какому состоянию - временному (timeState) или по статусу (status), и с какой позиции курсора.
+ * hotFrom - необязательная нижняя граница start_date для текущих бронирований, отсекающая архивную секцию.
+ */
+@Data
+@Builder
+public class BookingFilter {
+    private final Role role;
+    private final Integer userId;
+    private final Booking.TimeBookingState timeState;
+    private final Booking.BookingState status;
+    private final LocalDateTime now;
+    private final PageCursor cursor;
+    private final LocalDateTime hotFrom;
+
+    public enum Role {
+        BOOKER,
+        OWNER;
+    }
+}
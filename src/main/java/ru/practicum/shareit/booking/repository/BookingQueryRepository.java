@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.Booking;
+
+public interface BookingQueryRepository {
+    Slice<Booking> findBookings(BookingFilter filter, Pageable pageable);
+}
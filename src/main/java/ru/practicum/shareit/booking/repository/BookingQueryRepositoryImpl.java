@@ -0,0 +1,101 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.Booking;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Единый запрос списков бронирований. Текст JPQL зависит только от роли, состояния и наличия курсора,
+ * поэтому строится один раз для каждой комбинации, а план запроса переиспользуется Hibernate.
+ * Товар, его владелец, запрос на товар и автор бронирования загружаются тем же запросом.
+ * Пользователь выбирается по внешним ключам booker_id и owner_id, чтобы использовались индексы ix_bookings_booker_start
+ * и ix_items_owner_id.
+ */
+class BookingQueryRepositoryImpl implements BookingQueryRepository {
+    private static final String SELECT = "select b from Booking b " +
+            "join fetch b.item i " +
+            "join fetch i.owner o " +
+            "join fetch b.booker u " +
+            "left join fetch i.request r " +
+            "left join fetch r.requestor " +
+            "where ";
+    private static final String ORDER = " order by b.start desc, b.id desc";
+    private final Map<String, String> queries = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Booking> findBookings(BookingFilter filter, Pageable pageable) {
+        TypedQuery<Booking> query = entityManager.createQuery(queries.computeIfAbsent(getQueryKey(filter),
+                key -> buildQuery(filter)), Booking.class);
+        query.setParameter("userId", filter.getUserId());
+        if (filter.getStatus() != null) {
+            query.setParameter("status", filter.getStatus());
+        } else if (filter.getTimeState() != Booking.TimeBookingState.ALL) {
+            query.setParameter("now", filter.getNow());
+        }
+        if (isHotOnly(filter)) {
+            query.setParameter("hotFrom", filter.getHotFrom());
+        }
+        if (filter.getCursor() != null) {
+            query.setParameter("cursorStart", filter.getCursor().getStart());
+            query.setParameter("cursorId", filter.getCursor().getId());
+        }
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize() + 1);
+
+        List<Booking> bookings = query.getResultList();
+        boolean hasNext = bookings.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? bookings.subList(0, pageable.getPageSize()) : bookings, pageable, hasNext);
+    }
+
+    private String getQueryKey(BookingFilter filter) {
+        return filter.getRole().name() + ":" +
+                (filter.getStatus() != null ? "STATUS" : filter.getTimeState().name()) + ":" +
+                (filter.getCursor() != null) + ":" +
+                isHotOnly(filter);
+    }
+
+    private boolean isHotOnly(BookingFilter filter) {
+        return filter.getStatus() == null && filter.getTimeState() == Booking.TimeBookingState.CURRENT
+                && filter.getHotFrom() != null;
+    }
+
+    private String buildQuery(BookingFilter filter) {
+        StringBuilder query = new StringBuilder(SELECT)
+                .append(filter.getRole() == BookingFilter.Role.BOOKER ? "b.booker.id = :userId" : "i.owner.id = :userId");
+        if (filter.getStatus() != null) {
+            query.append(" and b.status = :status");
+        } else {
+            switch (filter.getTimeState()) {
+                case PAST:
+                    query.append(" and b.end < :now");
+                    break;
+                case CURRENT:
+                    if (isHotOnly(filter)) {
+                        query.append(" and b.start >= :hotFrom");
+                    }
+                    query.append(" and b.start < :now and b.end > :now");
+                    break;
+                case FUTURE:
+                    query.append(" and b.start > :now");
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (filter.getCursor() != null) {
+            query.append(" and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId))");
+        }
+        return query.append(ORDER).toString();
+    }
+}
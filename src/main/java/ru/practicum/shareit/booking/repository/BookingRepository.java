@@ -1,42 +1,65 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.Booking;
-import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.dto.ItemBookingsChangeView;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.List;
-
-public interface BookingRepository extends JpaRepository<Booking, Integer> {
-    //region Методы запросов бронирования для автора бронирования
-    List<Booking> findBookingsByItem_IdIsAndStatusIsAndEndIsAfter(Integer itemId, Booking.BookingState bookingState, LocalDateTime localDateTime);
-
-    Page<Booking> findBookingsByBookerIsOrderByStartDesc(User booker, Pageable pageable);
-
-    Page<Booking> findBookingsByBookerIsAndStatusIsOrderByStartDesc(User booker, Booking.BookingState bookingState, Pageable pageable);
-
-    Page<Booking> findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(User booker, LocalDateTime localDateTime, Pageable pageable);
-
-    Page<Booking> findBookingsByBookerIsAndEndBeforeOrderByStartDesc(User booker, LocalDateTime localDateTime, Pageable pageable);
-
-    Page<Booking> findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(User booker, LocalDateTime startDateTime, LocalDateTime endDateTime, Pageable pageable);
-    //endregion
-
-    //region Методы запросов бронирования для владельца товара
-    Page<Booking> findBookingsByItemOwnerIsOrderByStartDesc(User owner, Pageable pageable);
-
-    Page<Booking> findBookingsByItemOwnerAndStartAfterOrderByStartDesc(User owner, LocalDateTime localDateTime, Pageable pageable);
-
-    Page<Booking> findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(User owner, LocalDateTime localDateTime, Pageable pageable);
-
-    Page<Booking> findBookingsByItemOwnerIsAndStatusIsOrderByStartDesc(User owner, Booking.BookingState bookingState, Pageable pageable);
-
-    Page<Booking> findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(User owner, LocalDateTime startDateTime, LocalDateTime endDateTime, Pageable pageable);
-
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+public interface BookingRepository extends JpaRepository<Booking, Integer>, BookingQueryRepository {
+    @Override
+    @EntityGraph(Booking.GRAPH_EXTENDED)
+    Optional<Booking> findById(Integer id);
+
+    /**
+     * Есть ли бронирование товара с указанным статусом, пересекающееся с интервалом [start, end).
+     * Условие b.start >= hotFrom позволяет PostgreSQL не читать архивную секцию (см. BookingArchiver.hotFrom).
+     */
+    @Query("select case when count(b) > 0 then true else false end from Booking b " +
+            "where b.item.id = ?1 and b.status = ?2 and b.start >= ?5 and b.start < ?3 and b.end > ?4")
+    boolean existsOverlappingBooking(Integer itemId, Booking.BookingState bookingState, LocalDateTime end, LocalDateTime start,
+                                     LocalDateTime hotFrom);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select b.item.id as itemId, b.start as start, b.end as end from Booking b where b.status = ?1 and b.end > ?2")
+    Stream<BookingIntervalView> streamBookingIntervals(Booking.BookingState bookingState, LocalDateTime localDateTime);
+
+    @EntityGraph(Booking.GRAPH_EXTENDED)
+    @Query("select b from Booking b where b.item.id = ?1 and b.item.owner.id = ?2 order by b.start")
     List<Booking> findBookingsByItem_IdAndItem_Owner_IdIsOrderByStart(Integer itemId, Integer userId);
 
-
-    //endregion
+    /**
+     * Для каждого товара из списка возвращает последнее завершившееся (kind = LAST)
+     * и ближайшее следующее (kind = NEXT) бронирование одним запросом.
+     */
+    @Query(value = "select t.id as id, t.item_id as itemId, t.booker_id as bookerId, t.kind as kind from (" +
+            "select b.id, b.item_id, b.booker_id, 'LAST' as kind, " +
+            "row_number() over (partition by b.item_id order by b.end_date desc, b.id desc) as rn " +
+            "from bookings b where b.item_id in (:itemIds) and b.end_date < :now " +
+            "union all " +
+            "select b.id, b.item_id, b.booker_id, 'NEXT' as kind, " +
+            "row_number() over (partition by b.item_id order by b.end_date, b.id) as rn " +
+            "from bookings b where b.item_id in (:itemIds) and b.start_date > :now" +
+            ") t where t.rn = 1", nativeQuery = true)
+    List<ItemBookingView> findLastAndNextBookings(@Param("itemIds") List<Integer> itemIds, @Param("now") LocalDateTime now);
+
+    /**
+     * Для каждого товара возвращает ближайший после now момент начала или окончания бронирования,
+     * в который может смениться последнее или следующее бронирование.
+     */
+    @Query("select b.item.id as itemId, min(case when b.start > ?2 then b.start else b.end end) as changesAt " +
+            "from Booking b where b.item.id in ?1 and b.start >= ?3 and b.end > ?2 group by b.item.id")
+    List<ItemBookingsChangeView> findItemsBookingsChanges(List<Integer> itemIds, LocalDateTime now, LocalDateTime hotFrom);
 }
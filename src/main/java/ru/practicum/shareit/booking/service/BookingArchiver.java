@@ -0,0 +1,198 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.Booking;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Перенос завершённых бронирований в архивную секцию таблицы bookings (профиль partitioned, schema-partitioned.sql).
+ * Таблица секционирована по start_date на bookings_archive [MINVALUE, archivedBefore) и bookings_hot [archivedBefore, MAXVALUE),
+ * обе секции разбиты по месяцам. Таблицы месяцев создаются заранее на {@link #MONTHS_AHEAD} месяцев вперёд
+ * с ограничением CHECK по своим границам, поэтому перенос месяцев в архив меняет только каталог и не читает строки.
+ * Архивируются бронирования, которые начались раньше archivedBefore, а граница сдвигается до начала месяца
+ * самого раннего незакрытого бронирования (ожидающего подтверждения или закончившегося позже now - after).
+ * Поэтому у всех архивных бронирований end_date < archivedEndBefore, и запросы с условием end_date > t
+ * при t >= archivedEndBefore могут ограничить start_date снизу значением {@link #hotFrom}, чтобы PostgreSQL отсёк архив.
+ * Без профиля partitioned перенос выключен, а hotFrom возвращает {@link #NO_ARCHIVE}.
+ */
+@Component
+@Slf4j
+public class BookingArchiver {
+    /**
+     * Граница пустого архива: бронирований, начавшихся раньше, не бывает.
+     */
+    public static final LocalDateTime NO_ARCHIVE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    /**
+     * На сколько месяцев вперёд создаются таблицы месяцев. Более поздние бронирования хранятся в bookings_hot_default.
+     */
+    public static final int MONTHS_AHEAD = 12;
+    private static final String MONTH_TABLE = "bookings_p";
+    private static final DateTimeFormatter MONTH_SUFFIX = DateTimeFormatter.ofPattern("uuuuMM");
+    private static final DateTimeFormatter LITERAL = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Duration after;
+    private volatile Bounds bounds = new Bounds(NO_ARCHIVE, NO_ARCHIVE);
+
+    @Autowired
+    public BookingArchiver(JdbcTemplate jdbcTemplate,
+                           @Value("${shareit.bookings.archive.enabled:false}") boolean enabled,
+                           @Value("${shareit.bookings.archive.after:180d}") Duration after) {
+        if (after.compareTo(Duration.ofDays(1)) < 0) {
+            throw new IllegalArgumentException("Срок архивации бронирований не может быть меньше суток.");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.after = after;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void loadBounds() {
+        if (!enabled) {
+            return;
+        }
+        bounds = jdbcTemplate.queryForObject("select archived_before, archived_end_before from bookings_archive_state",
+                (resultSet, rowNum) -> new Bounds(resultSet.getTimestamp(1).toLocalDateTime(),
+                        resultSet.getTimestamp(2).toLocalDateTime()));
+        createMonths(YearMonth.now());
+        log.info("Бронирования, начавшиеся до {}, находятся в архиве.", bounds.getArchivedBefore());
+    }
+
+    /**
+     * Нижняя граница start_date для запроса бронирований с end_date > endAfter:
+     * archivedBefore, если архивных бронирований с таким окончанием нет, иначе {@link #NO_ARCHIVE}.
+     */
+    public LocalDateTime hotFrom(LocalDateTime endAfter) {
+        Bounds current = bounds;
+        return endAfter.isBefore(current.getArchivedEndBefore()) ? NO_ARCHIVE : current.getArchivedBefore();
+    }
+
+    @Scheduled(cron = "${shareit.bookings.archive.cron:0 30 3 * * *}")
+    @Transactional
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        jdbcTemplate.execute("SET LOCAL lock_timeout = '5s'");
+        createMonths(YearMonth.now());
+        LocalDateTime cutoff = LocalDateTime.now().minus(after);
+        Timestamp earliestOpen = jdbcTemplate.queryForObject("select min(start_date) from bookings_hot " +
+                        "where start_date < ? and (end_date >= ? or status = ?)",
+                Timestamp.class, Timestamp.valueOf(cutoff), Timestamp.valueOf(cutoff), Booking.BookingState.WAITING.name());
+        YearMonth firstHotMonth = YearMonth.from(earliestOpen == null ? cutoff : earliestOpen.toLocalDateTime());
+        LocalDateTime archivedBefore = monthStart(firstHotMonth);
+        if (!archivedBefore.isAfter(bounds.getArchivedBefore())) {
+            log.info("Нет бронирований для переноса в архив.");
+            return;
+        }
+        List<YearMonth> months = findMonths("bookings_hot").stream()
+                .filter(month -> month.isBefore(firstHotMonth))
+                .collect(Collectors.toList());
+        String bound = literal(archivedBefore);
+        jdbcTemplate.execute("ALTER TABLE bookings DETACH PARTITION bookings_archive");
+        jdbcTemplate.execute("ALTER TABLE bookings DETACH PARTITION bookings_hot");
+        for (YearMonth month : months) {
+            jdbcTemplate.execute("ALTER TABLE bookings_hot DETACH PARTITION " + monthTable(month));
+            jdbcTemplate.execute("ALTER TABLE bookings_archive ATTACH PARTITION " + monthTable(month) +
+                    " FOR VALUES FROM (" + literal(monthStart(month)) + ") TO (" + literal(monthStart(month.plusMonths(1))) + ")");
+        }
+        // Ограничения CHECK таблиц месяцев следуют из новых границ секций, поэтому ATTACH PARTITION не читает строки.
+        // Проверяется только bookings_hot_default, в которой остаются бронирования дальше MONTHS_AHEAD месяцев.
+        jdbcTemplate.execute("ALTER TABLE bookings ATTACH PARTITION bookings_archive FOR VALUES FROM (MINVALUE) TO (" + bound + ")");
+        jdbcTemplate.execute("ALTER TABLE bookings ATTACH PARTITION bookings_hot FOR VALUES FROM (" + bound + ") TO (MAXVALUE)");
+        jdbcTemplate.update("UPDATE bookings_archive_state SET archived_before = ?, archived_end_before = ?",
+                Timestamp.valueOf(archivedBefore), Timestamp.valueOf(cutoff));
+        Bounds archived = new Bounds(archivedBefore, cutoff);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bounds = archived;
+                }
+            });
+        } else {
+            bounds = archived;
+        }
+        log.info("В архив перенесено {} месяцев бронирований, начавшихся до {}.", months.size(), archivedBefore);
+    }
+
+    /**
+     * Создаёт недостающие таблицы месяцев с current до current + MONTHS_AHEAD и для бронирований
+     * из bookings_hot_default, начинающихся раньше этого горизонта. Их строки переносятся в новые таблицы.
+     */
+    private void createMonths(YearMonth current) {
+        YearMonth horizon = current.plusMonths(MONTHS_AHEAD);
+        Set<YearMonth> months = new TreeSet<>();
+        for (YearMonth month = current; month.isBefore(horizon); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        jdbcTemplate.queryForList("select distinct date_trunc('month', start_date) from bookings_hot_default " +
+                        "where start_date < ?", Timestamp.class, Timestamp.valueOf(monthStart(horizon)))
+                .forEach(start -> months.add(YearMonth.from(start.toLocalDateTime())));
+        months.removeAll(findMonths("bookings_hot"));
+        months.forEach(this::createMonth);
+    }
+
+    private void createMonth(YearMonth month) {
+        String table = monthTable(month);
+        LocalDateTime from = monthStart(month);
+        LocalDateTime to = monthStart(month.plusMonths(1));
+        jdbcTemplate.execute("CREATE TABLE " + table + " (LIKE bookings INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        jdbcTemplate.execute("ALTER TABLE " + table + " ADD CONSTRAINT ck_" + table + "_start " +
+                "CHECK (start_date >= " + literal(from) + " AND start_date < " + literal(to) + ")");
+        jdbcTemplate.update("WITH moved AS (DELETE FROM bookings_hot_default WHERE start_date >= ? AND start_date < ? " +
+                "RETURNING *) INSERT INTO " + table + " SELECT * FROM moved", Timestamp.valueOf(from), Timestamp.valueOf(to));
+        jdbcTemplate.execute("ALTER TABLE bookings_hot ATTACH PARTITION " + table +
+                " FOR VALUES FROM (" + literal(from) + ") TO (" + literal(to) + ")");
+    }
+
+    private List<YearMonth> findMonths(String parent) {
+        return jdbcTemplate.queryForList("select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid " +
+                        "where i.inhparent = (select oid from pg_class where relname = ?)", String.class, parent).stream()
+                .filter(table -> table.startsWith(MONTH_TABLE))
+                .map(table -> YearMonth.parse(table.substring(MONTH_TABLE.length()), MONTH_SUFFIX))
+                .collect(Collectors.toList());
+    }
+
+    private static String monthTable(YearMonth month) {
+        return MONTH_TABLE + month.format(MONTH_SUFFIX);
+    }
+
+    private static LocalDateTime monthStart(YearMonth month) {
+        return month.atDay(1).atStartOfDay();
+    }
+
+    private static String literal(LocalDateTime dateTime) {
+        return "'" + dateTime.format(LITERAL) + "'";
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Bounds {
+        private final LocalDateTime archivedBefore;
+        private final LocalDateTime archivedEndBefore;
+    }
+}
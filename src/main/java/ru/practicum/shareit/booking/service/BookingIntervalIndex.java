@@ -0,0 +1,82 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Индекс занятости товаров: для каждого товара хранит объединение интервалов подтверждённых бронирований
+ * в виде упорядоченного набора непересекающихся отрезков [start, end).
+ * Индекс используется как быстрый фильтр - при обнаружении пересечения решение подтверждается базой данных.
+ */
+@Component
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Slf4j
+public class BookingIntervalIndex {
+    private final BookingRepository bookingRepository;
+    private final Map<Integer, NavigableMap<LocalDateTime, LocalDateTime>> segments = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        try (Stream<BookingIntervalView> intervals = bookingRepository.streamBookingIntervals(Booking.BookingState.APPROVED, LocalDateTime.now())) {
+            intervals.forEach(interval -> add(interval.getItemId(), interval.getStart(), interval.getEnd()));
+        }
+        log.info("Индекс бронирований заполнен для {} товаров.", segments.size());
+    }
+
+    public void add(Integer itemId, LocalDateTime start, LocalDateTime end) {
+        NavigableMap<LocalDateTime, LocalDateTime> itemSegments = segments.computeIfAbsent(itemId, id -> new TreeMap<>());
+        synchronized (itemSegments) {
+            removeExpired(itemSegments, LocalDateTime.now());
+            Map.Entry<LocalDateTime, LocalDateTime> floor = itemSegments.floorEntry(start);
+            if (floor != null && floor.getValue().isAfter(start)) {
+                start = floor.getKey();
+                end = max(end, floor.getValue());
+                itemSegments.remove(floor.getKey());
+            }
+            Map.Entry<LocalDateTime, LocalDateTime> next = itemSegments.ceilingEntry(start);
+            while (next != null && next.getKey().isBefore(end)) {
+                end = max(end, next.getValue());
+                itemSegments.remove(next.getKey());
+                next = itemSegments.ceilingEntry(start);
+            }
+            itemSegments.put(start, end);
+        }
+    }
+
+    public boolean overlaps(Integer itemId, LocalDateTime start, LocalDateTime end) {
+        NavigableMap<LocalDateTime, LocalDateTime> itemSegments = segments.get(itemId);
+        if (itemSegments == null) {
+            return false;
+        }
+        synchronized (itemSegments) {
+            Map.Entry<LocalDateTime, LocalDateTime> candidate = itemSegments.lowerEntry(end);
+            return candidate != null && candidate.getValue().isAfter(start);
+        }
+    }
+
+    private void removeExpired(NavigableMap<LocalDateTime, LocalDateTime> itemSegments, LocalDateTime now) {
+        while (!itemSegments.isEmpty() && !itemSegments.firstEntry().getValue().isAfter(now)) {
+            itemSegments.pollFirstEntry();
+        }
+    }
+
+    private LocalDateTime max(LocalDateTime first, LocalDateTime second) {
+        return first.isAfter(second) ? first : second;
+    }
+}
@@ -2,22 +2,29 @@ package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingExtendedDto;
-import ru.practicum.shareit.item.dto.ItemExtendedDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.ItemBookingsDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 
 import java.util.List;
+import java.util.Map;
 
 public interface BookingService {
     BookingExtendedDto getBooking(Integer id, Integer userId);
 
     List<BookingExtendedDto> getBookings(Integer bookerId, String state, Integer from, Integer size);
 
-    BookingExtendedDto createBooking(BookingCreateDto booking, ItemExtendedDto itemDto, Integer bookerId);
+    BookingPageDto getBookingsPage(Integer bookerId, String state, Integer from, Integer size, String cursor);
+
+    BookingExtendedDto createBooking(BookingCreateDto booking, ItemAvailabilityDto itemDto, Integer bookerId);
 
     BookingExtendedDto approveBooking(Integer bookingId, boolean approved, Integer userId);
 
     List<BookingExtendedDto> getOwnersBookings(Integer userId, String state, Integer from, Integer size);
 
-    List<BookingExtendedDto> getBookingsByItem(Integer itemId, Integer userId);
+    BookingPageDto getOwnersBookingsPage(Integer userId, String state, Integer from, Integer size, String cursor);
 
+    List<BookingExtendedDto> getBookingsByItem(Integer itemId, Integer userId);
 
+    Map<Integer, ItemBookingsDto> getItemsBookings(List<Integer> itemIds);
 }
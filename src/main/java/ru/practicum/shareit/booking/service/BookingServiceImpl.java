@@ -4,30 +4,40 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.web.PageableDefault;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingExtendedDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.dto.ItemBookingsChangeView;
+import ru.practicum.shareit.booking.dto.ItemBookingsDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.repository.BookingFilter;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.error.NotFoundException;
 import ru.practicum.shareit.error.ValidationException;
-import ru.practicum.shareit.item.dto.ItemExtendedDto;
-import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.PageCursor;
 import ru.practicum.shareit.utils.PaginationUtils;
+import ru.practicum.shareit.utils.RequestLookupContext;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
@@ -35,10 +45,18 @@ import java.util.stream.Stream;
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final UserService userService;
-    private static final Pageable PAGEABLE_DEFAULT = PaginationUtils.createPageRequest(0, 100, Sort.by("start").descending());
+    private final ItemRepository itemRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemBookingsSummary itemBookingsSummary;
+    private final RequestLookupContext lookupContext;
+    private final BookingArchiver bookingArchiver;
+    private static final Sort SORT_DEFAULT = Sort.by("start").descending().and(Sort.by("id").descending());
+    private static final Pageable PAGEABLE_DEFAULT = PaginationUtils.createPageRequest(0, 100, SORT_DEFAULT);
+    private static final String ITEM_BOOKING_LAST = "LAST";
 
     @Override
-    public BookingExtendedDto createBooking(BookingCreateDto bookingCreateDto, ItemExtendedDto itemDto, Integer bookerId) {
+    @Transactional
+    public BookingExtendedDto createBooking(BookingCreateDto bookingCreateDto, ItemAvailabilityDto itemDto, Integer bookerId) {
         if (!itemDto.getAvailable()) {
             throw new ValidationException("Товар с id " + itemDto.getId() + " не доступен до бронирования");
         }
@@ -47,28 +65,26 @@ public class BookingServiceImpl implements BookingService {
             throw new NotFoundException("Товар с id " + itemDto.getId() + " не может быть заброванирован владельцем");
         }
         User booker = UserMapper.toUser(userService.getUser(bookerId));
-        Item item = ItemMapper.toItem(itemDto);
-        User owner = UserMapper.toUser(userService.getUser(itemDto.getOwnerId()));
-        item.setOwner(owner);
 
         validationBooking(bookingCreateDto);
 
-        List<Booking> bookings = bookingRepository.findBookingsByItem_IdIsAndStatusIsAndEndIsAfter(item.getId(), Booking.BookingState.APPROVED, bookingCreateDto.getStart());
-        if (!bookings.isEmpty()) {
+        Item item = lockItem(itemDto.getId());
+        if (isItemBusy(item.getId(), bookingCreateDto.getStart(), bookingCreateDto.getEnd())) {
             throw new NotFoundException("Недоступный товар для бронирования " + item.getName());
         }
         Booking booking = BookingMapper.toBooking(bookingCreateDto);
         booking.setBooker(booker);
         booking.setItem(item);
         booking.setStatus(Booking.BookingState.WAITING);
-
-        return BookingMapper.toBookingExtendedDto(bookingRepository.save(booking));
+        Booking saved = bookingRepository.save(booking);
+        itemBookingsSummary.evict(item.getId());
+        return BookingMapper.toBookingExtendedDto(saved);
     }
 
     @Override
+    @Transactional
     public BookingExtendedDto approveBooking(Integer bookingId, boolean approved, Integer userId) {
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() ->
-                new NotFoundException("Бронирования с id = " + bookingId + " не существует."));
+        Booking booking = getBookingFromDB(bookingId);
         if (booking.getBooker().getId().equals(userId)) {
             throw new NotFoundException("Не существует доступного для обновления бронирования для пользователя с id = " + userId + ".");
 
@@ -76,14 +92,27 @@ public class BookingServiceImpl implements BookingService {
         if (!booking.getItem().getOwner().getId().equals(userId) || !booking.getStatus().equals(Booking.BookingState.WAITING)) {
             throw new ValidationException("Статус бронирования не может быть обновлен");
         }
-        booking.setStatus(approved ? Booking.BookingState.APPROVED : Booking.BookingState.REJECTED);
-        return BookingMapper.toBookingExtendedDto(bookingRepository.save(booking));
+        if (!approved) {
+            booking.setStatus(Booking.BookingState.REJECTED);
+            Booking saved = bookingRepository.save(booking);
+            itemBookingsSummary.evict(saved.getItem().getId());
+            return BookingMapper.toBookingExtendedDto(saved);
+        }
+        Item item = lockItem(booking.getItem().getId());
+        if (bookingRepository.existsOverlappingBooking(item.getId(), Booking.BookingState.APPROVED,
+                booking.getEnd(), booking.getStart(), bookingArchiver.hotFrom(booking.getStart()))) {
+            throw new ValidationException("Недоступный товар для бронирования " + item.getName());
+        }
+        booking.setStatus(Booking.BookingState.APPROVED);
+        Booking saved = bookingRepository.save(booking);
+        bookingIntervalIndex.add(item.getId(), saved.getStart(), saved.getEnd());
+        itemBookingsSummary.evict(item.getId());
+        return BookingMapper.toBookingExtendedDto(saved);
     }
 
     @Override
     public BookingExtendedDto getBooking(Integer id, Integer userId) {
-        Booking booking = bookingRepository.findById(id).orElseThrow(() ->
-                new NotFoundException("Бронирования с id = " + id + " не существует."));
+        Booking booking = getBookingFromDB(id);
         if (!booking.getBooker().getId().equals(userId) && !booking.getItem().getOwner().getId().equals(userId)) {
             throw new NotFoundException("Не существует доступного бронирования для пользователя с id = " + userId + ".");
         }
@@ -92,69 +121,84 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingExtendedDto> getBookings(Integer bookerId, String state, Integer from, Integer size) {
-        Pageable pageable = from == null || size == null
-                ? PAGEABLE_DEFAULT
-                : PaginationUtils.createPageRequest(from, size, Sort.by("start").descending());
-
-        return getBookingsStream(bookerId, state, pageable)
-                .map(BookingMapper::toBookingExtendedDto)
-                .collect(Collectors.toList());
-
+        return getBookingsPage(bookerId, state, from, size, null).getBookings();
     }
 
-    private Stream<Booking> getBookingsStream(Integer bookerId, String state, Pageable pageable) {
-        User booker = UserMapper.toUser(userService.getUser(bookerId));
-        if (state == null || state.equals(Booking.TimeBookingState.ALL.name())) {
-            return bookingRepository.findBookingsByBookerIsOrderByStartDesc(booker, pageable).stream();
-        }
-        if (state.equals(Booking.TimeBookingState.FUTURE.name())) {
-            return bookingRepository.findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(booker, LocalDateTime.now(), pageable).stream();
-        }
-        if (state.equals(Booking.TimeBookingState.CURRENT.name())) {
-            return bookingRepository.findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(booker, LocalDateTime.now(), LocalDateTime.now(), null).stream();
-        }
-
-        if (state.equals(Booking.TimeBookingState.PAST.name())) {
-            return bookingRepository.findBookingsByBookerIsAndEndBeforeOrderByStartDesc(booker, LocalDateTime.now(), pageable).stream();
-        }
-        if (Arrays.stream(Booking.BookingState.values()).anyMatch(bookingState -> bookingState.name().equals(state))) {
-            return bookingRepository.findBookingsByBookerIsAndStatusIsOrderByStartDesc(booker, Booking.BookingState.valueOf(state), pageable).stream();
-        }
-        throw new ValidationException("Unknown state: " + state);
+    @Override
+    public BookingPageDto getBookingsPage(Integer bookerId, String state, Integer from, Integer size, String cursor) {
+        return findBookings(BookingFilter.Role.BOOKER, bookerId, state, from, size, cursor);
     }
 
     @Override
     public List<BookingExtendedDto> getOwnersBookings(Integer userId, String state, Integer from, Integer size) {
-        Pageable pageable = from == null || size == null
-                ? PAGEABLE_DEFAULT
-                : PaginationUtils.createPageRequest(from, size, Sort.by("start").descending());
-
-        return getOwnersBookingsStream(userId, state, pageable)
-                .map(BookingMapper::toBookingExtendedDto)
-                .collect(Collectors.toList());
+        return getOwnersBookingsPage(userId, state, from, size, null).getBookings();
+    }
 
+    @Override
+    public BookingPageDto getOwnersBookingsPage(Integer userId, String state, Integer from, Integer size, String cursor) {
+        return findBookings(BookingFilter.Role.OWNER, userId, state, from, size, cursor);
+    }
 
+    private BookingPageDto findBookings(BookingFilter.Role role, Integer userId, String state, Integer from, Integer size, String cursor) {
+        Pageable pageable = cursor == null ? createPageRequest(from, size) : createCursorPageRequest(size);
+        BookingFilter.BookingFilterBuilder filter = createFilter(state)
+                .role(role)
+                .cursor(cursor == null ? null : PageCursor.decode(cursor));
+        User user = UserMapper.toUser(userService.getUser(userId));
+        return toBookingPageDto(bookingRepository.findBookings(filter.userId(user.getId()).build(), pageable));
     }
 
-    private Stream<Booking> getOwnersBookingsStream(Integer userId, String state, @PageableDefault(sort = {"start",}, value = 100, direction = Sort.Direction.DESC) Pageable pageable) {
-        User owner = UserMapper.toUser(userService.getUser(userId));
+    private BookingFilter.BookingFilterBuilder createFilter(String state) {
         if (state == null || state.equals(Booking.TimeBookingState.ALL.name())) {
-            return bookingRepository.findBookingsByItemOwnerIsOrderByStartDesc(owner, pageable).stream();
+            return BookingFilter.builder().timeState(Booking.TimeBookingState.ALL);
         }
-        if (state.equals(Booking.TimeBookingState.FUTURE.name())) {
-            return bookingRepository.findBookingsByItemOwnerAndStartAfterOrderByStartDesc(owner, LocalDateTime.now(), pageable).stream();
+        for (Booking.TimeBookingState timeState : Booking.TimeBookingState.values()) {
+            if (timeState.name().equals(state)) {
+                LocalDateTime now = LocalDateTime.now();
+                return BookingFilter.builder().timeState(timeState).now(now).hotFrom(bookingArchiver.hotFrom(now));
+            }
         }
-        if (state.equals(Booking.TimeBookingState.CURRENT.name())) {
-            return bookingRepository.findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(owner, LocalDateTime.now(), LocalDateTime.now(), pageable).stream();
+        for (Booking.BookingState status : Booking.BookingState.values()) {
+            if (status.name().equals(state)) {
+                return BookingFilter.builder().status(status);
+            }
         }
+        throw new ValidationException("Unknown state: " + state);
+    }
 
-        if (state.equals(Booking.TimeBookingState.PAST.name())) {
-            return bookingRepository.findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(owner, LocalDateTime.now(), pageable).stream();
+    @Override
+    public Map<Integer, ItemBookingsDto> getItemsBookings(List<Integer> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyMap();
         }
-        if (Arrays.stream(Booking.BookingState.values()).anyMatch(bookingState -> bookingState.name().equals(state))) {
-            return bookingRepository.findBookingsByItemOwnerIsAndStatusIsOrderByStartDesc(owner, Booking.BookingState.valueOf(state), pageable).stream();
+        LocalDateTime now = LocalDateTime.now();
+        Map<Integer, ItemBookingsDto> result = new HashMap<>(itemBookingsSummary.getAll(itemIds, now));
+        List<Integer> missing = itemIds.stream()
+                .filter(itemId -> !result.containsKey(itemId))
+                .collect(Collectors.toList());
+        if (missing.isEmpty()) {
+            return result;
         }
-        throw new ValidationException("Unknown state: " + state);
+        long version = itemBookingsSummary.getVersion();
+        for (Integer itemId : missing) {
+            result.put(itemId, new ItemBookingsDto());
+        }
+        for (ItemBookingView view : bookingRepository.findLastAndNextBookings(missing, now)) {
+            ItemBookingsDto itemBookings = result.get(view.getItemId());
+            BookingDto booking = new BookingDto(view.getId(), view.getBookerId());
+            if (ITEM_BOOKING_LAST.equals(view.getKind())) {
+                itemBookings.setLastBooking(booking);
+            } else {
+                itemBookings.setNextBooking(booking);
+            }
+        }
+        Map<Integer, LocalDateTime> changes = bookingRepository.findItemsBookingsChanges(missing, now, bookingArchiver.hotFrom(now))
+                .stream()
+                .collect(Collectors.toMap(ItemBookingsChangeView::getItemId, ItemBookingsChangeView::getChangesAt));
+        for (Integer itemId : missing) {
+            itemBookingsSummary.put(itemId, result.get(itemId), changes.get(itemId), version);
+        }
+        return result;
     }
 
     @Override
@@ -165,6 +209,47 @@ public class BookingServiceImpl implements BookingService {
                 .collect(Collectors.toList());
     }
 
+    private Pageable createPageRequest(Integer from, Integer size) {
+        return from == null || size == null
+                ? PAGEABLE_DEFAULT
+                : PaginationUtils.createPageRequest(from, size, SORT_DEFAULT);
+    }
+
+    private Pageable createCursorPageRequest(Integer size) {
+        return PaginationUtils.createPageRequest(0, size == null ? PAGEABLE_DEFAULT.getPageSize() : size, Sort.unsorted());
+    }
+
+    private BookingPageDto toBookingPageDto(Slice<Booking> bookings) {
+        String nextCursor = null;
+        if (bookings.hasNext() && bookings.hasContent()) {
+            Booking last = bookings.getContent().get(bookings.getNumberOfElements() - 1);
+            nextCursor = new PageCursor(last.getStart(), last.getId()).encode();
+        }
+        return new BookingPageDto(bookings.stream()
+                .map(BookingMapper::toBookingExtendedDto)
+                .collect(Collectors.toList()), nextCursor);
+    }
+
+    private Booking getBookingFromDB(Integer bookingId) {
+        return lookupContext.get(Booking.class, bookingId, () -> bookingRepository.findById(bookingId).orElseThrow(() ->
+                new NotFoundException("Бронирования с id = " + bookingId + " не существует.")));
+    }
+
+    /**
+     * Блокирует строку товара (SELECT ... FOR UPDATE) до конца транзакции: проверка пересечения
+     * и подтверждение бронирования одного товара выполняются последовательно и видят зафиксированные изменения.
+     */
+    private Item lockItem(Integer itemId) {
+        return itemRepository.findItemForUpdate(itemId).orElseThrow(() ->
+                new NotFoundException("Товара с id = " + itemId + " не существует."));
+    }
+
+    private boolean isItemBusy(Integer itemId, LocalDateTime start, LocalDateTime end) {
+        return bookingIntervalIndex.overlaps(itemId, start, end)
+                && bookingRepository.existsOverlappingBooking(itemId, Booking.BookingState.APPROVED, end, start,
+                bookingArchiver.hotFrom(start));
+    }
+
     private void validationBooking(BookingCreateDto booking) {
 
         if (booking.getStart() == null) {
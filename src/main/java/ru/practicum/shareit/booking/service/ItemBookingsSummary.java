@@ -0,0 +1,116 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.ItemBookingsDto;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Сводка последнего и следующего бронирования по товарам.
+ * Запись действительна до момента validUntil - ближайшего начала или окончания бронирования товара,
+ * после которого последнее или следующее бронирование может смениться.
+ * Запись удаляется при изменении бронирований товара, просроченные записи удаляются по расписанию.
+ * Число записей ограничено maxSize: записи без validUntil не просрочиваются и иначе копились бы по всем товарам.
+ */
+@Component
+@Slf4j
+public class ItemBookingsSummary {
+    private final Cache<Integer, Entry> entries;
+    private final AtomicLong version = new AtomicLong();
+
+    @Autowired
+    public ItemBookingsSummary(@Value("${shareit.item-bookings-summary.max-size:10000}") int maxSize) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * Возвращает действительные на момент now записи для переданных товаров.
+     */
+    public Map<Integer, ItemBookingsDto> getAll(Collection<Integer> itemIds, LocalDateTime now) {
+        Map<Integer, ItemBookingsDto> result = new HashMap<>();
+        for (Integer itemId : itemIds) {
+            Entry entry = entries.getIfPresent(itemId);
+            if (entry != null && entry.isValid(now)) {
+                result.put(itemId, entry.getBookings());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Версия сводки. Значение нужно получить до чтения бронирований из базы и передать в {@link #put}.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Сохраняет запись, если с момента получения версии бронирования ни одного товара не менялись.
+     */
+    public void put(Integer itemId, ItemBookingsDto bookings, LocalDateTime validUntil, long readVersion) {
+        if (version.get() == readVersion) {
+            entries.put(itemId, new Entry(bookings, validUntil));
+        }
+    }
+
+    /**
+     * Удаляет запись товара сразу и повторно после фиксации текущей транзакции,
+     * чтобы не сохранить значение, прочитанное до фиксации.
+     */
+    public void evict(Integer itemId) {
+        remove(itemId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(itemId);
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.item-bookings-summary.sweep-interval:60000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        long size = getSize();
+        entries.asMap().values().removeIf(entry -> !entry.isValid(now));
+        log.debug("Из сводки бронирований удалено {} просроченных записей.", size - getSize());
+    }
+
+    public long getSize() {
+        entries.cleanUp();
+        return entries.estimatedSize();
+    }
+
+    private void remove(Integer itemId) {
+        version.incrementAndGet();
+        entries.invalidate(itemId);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Entry {
+        private final ItemBookingsDto bookings;
+        private final LocalDateTime validUntil;
+
+        boolean isValid(LocalDateTime now) {
+            return validUntil == null || validUntil.isAfter(now);
+        }
+    }
+}
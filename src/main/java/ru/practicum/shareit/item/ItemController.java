@@ -1,15 +1,30 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.error.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemExtendedDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -21,6 +36,11 @@ import java.util.List;
 public class ItemController {
     private final ItemService itemService;
     private final ItemRequestService itemRequestService;
+    private final ObjectMapper objectMapper;
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    @Value("${shareit.items.batch.max-size:10000}")
+    private int batchMaxSize = 10000;
 
     @GetMapping()
     public List<ItemExtendedDto> getAllItems(@RequestParam(required = false) Integer from,
@@ -33,8 +53,15 @@ public class ItemController {
     public List<ItemDto> searchItems(@RequestParam(required = false) String text,
                                      @RequestParam(required = false) Integer from,
                                      @RequestParam(required = false) Integer size,
+                                     @RequestParam(required = false) String sort,
                                      @RequestHeader(required = false, value = "X-Sharer-User-Id") Integer userId) {
-        return itemService.searchItems(text, userId, from, size);
+        return itemService.searchItems(text, userId, from, size, sort);
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggestItemNames(@RequestParam(required = false) String prefix,
+                                         @RequestParam(required = false) Integer size) {
+        return itemService.suggestItemNames(prefix, size);
     }
 
     @PostMapping()
@@ -44,6 +71,66 @@ public class ItemController {
         return itemService.createItem(itemDto, itemRequestDto, userId);
     }
 
+    /**
+     * Массив товаров разбирается потоком по элементам, и пакет больше batchMaxSize отклоняется
+     * до разбора остальной части тела. Тело читается до вызова сервиса, вне транзакции.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public List<ItemBatchResultDto> createItems(InputStream body,
+                                                @RequestHeader(required = false, value = "X-Sharer-User-Id") Integer userId)
+            throws IOException {
+        List<ItemDto> itemDtos = new ArrayList<>();
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ValidationException("Пакет товаров должен быть массивом JSON.");
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                checkBatchSize(itemDtos.size() + 1);
+                itemDtos.add(parser.readValueAs(ItemDto.class));
+            }
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("Некорректный JSON.");
+        }
+        return itemService.createItems(itemDtos, userId);
+    }
+
+    /**
+     * Пакет в формате NDJSON: один товар в строке, пустые строки пропускаются.
+     * Индекс результата - номер строки тела запроса с нуля, включая пустые строки.
+     * Тело читается построчно до вызова сервиса, вне транзакции, и загрузка отклоняется,
+     * как только непустых строк становится больше batchMaxSize.
+     * Строки с некорректным JSON попадают в результат с ошибкой, остальные сохраняются как пакет JSON.
+     */
+    @PostMapping(value = "/batch", consumes = APPLICATION_NDJSON_VALUE)
+    public List<ItemBatchResultDto> createItemsFromNdjson(Reader body,
+                                                          @RequestHeader(required = false, value = "X-Sharer-User-Id") Integer userId)
+            throws IOException {
+        ObjectReader itemReader = objectMapper.readerFor(ItemDto.class);
+        List<ItemDto> itemDtos = new ArrayList<>();
+        List<Integer> lines = new ArrayList<>();
+        List<ItemBatchResultDto> results = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(body);
+        int line = 0;
+        for (String text = reader.readLine(); text != null; text = reader.readLine(), line++) {
+            if (text.isBlank()) {
+                continue;
+            }
+            checkBatchSize(itemDtos.size() + results.size() + 1);
+            try {
+                itemDtos.add(itemReader.readValue(text));
+                lines.add(line);
+            } catch (JsonProcessingException e) {
+                results.add(new ItemBatchResultDto(line, null, "Некорректный JSON."));
+            }
+        }
+        for (ItemBatchResultDto result : itemService.createItems(itemDtos, userId)) {
+            result.setIndex(lines.get(result.getIndex()));
+            results.add(result);
+        }
+        results.sort(Comparator.comparing(ItemBatchResultDto::getIndex));
+        return results;
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@RequestBody ItemDto itemDto,
                               @PathVariable int itemId,
@@ -69,4 +156,10 @@ public class ItemController {
                                         @RequestHeader(required = false, value = "X-Sharer-User-Id") Integer userId) {
         return itemService.createComment(commentDto, itemId, userId);
     }
+
+    private void checkBatchSize(int rows) {
+        if (rows > batchMaxSize) {
+            throw new ValidationException("В пакете не может быть больше " + batchMaxSize + " товаров.");
+        }
+    }
 }
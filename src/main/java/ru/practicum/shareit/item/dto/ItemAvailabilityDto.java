@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Данные товара, нужные для проверки при бронировании.
+ */
+@Data
+@AllArgsConstructor
+public class ItemAvailabilityDto {
+    private Integer id;
+    private Boolean available;
+    private Integer ownerId;
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Результат обработки строки пакетной загрузки товаров: созданный товар или текст ошибки.
+ * index - номер строки во входных данных, начиная с 0.
+ */
+@Data
+@AllArgsConstructor
+public class ItemBatchResultDto {
+    private Integer index;
+    private ItemDto item;
+    private String error;
+}
@@ -2,7 +2,9 @@ package ru.practicum.shareit.item.mapper;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingExtendedDto;
+import ru.practicum.shareit.booking.dto.ItemBookingsDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemExtendedDto;
 import ru.practicum.shareit.item.model.Item;
@@ -21,6 +23,14 @@ public class ItemMapper {
         );
     }
 
+    public static ItemAvailabilityDto toItemAvailabilityDto(Item item) {
+        return new ItemAvailabilityDto(
+                item.getId(),
+                item.getAvailable(),
+                item.getOwner() != null ? item.getOwner().getId() : null
+        );
+    }
+
     public static ItemExtendedDto toItemExtendedDto(Item item, BookingExtendedDto lastBooking, BookingExtendedDto nextBooking, List<CommentDto> comments) {
         return new ItemExtendedDto(
                 item.getId(),
@@ -35,6 +45,20 @@ public class ItemMapper {
         );
     }
 
+    public static ItemExtendedDto toItemExtendedDto(Item item, ItemBookingsDto bookings, List<CommentDto> comments) {
+        return new ItemExtendedDto(
+                item.getId(),
+                item.getName(),
+                item.getDescription(),
+                item.getAvailable(),
+                item.getOwner() != null ? item.getOwner().getId() : null,
+                item.getRequest() != null ? item.getRequest().getId() : null,
+                bookings == null ? null : bookings.getLastBooking(),
+                bookings == null ? null : bookings.getNextBooking(),
+                comments == null ? List.of() : comments
+        );
+    }
+
     public static Item toItem(ItemDto itemDto) {
         return Item.builder()
                 .id(itemDto.getId())
@@ -1,13 +1,19 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Integer> {
 
+    @EntityGraph(attributePaths = {"author", "item", "item.owner", "item.request", "item.request.requestor"})
+    @Query("select c from Comment c where c.item.id = ?1 order by c.created")
     List<Comment> findCommentByItem_IdIsOrderByCreated(Integer itemId);
 
+    @EntityGraph(attributePaths = {"author", "item", "item.owner", "item.request", "item.request.requestor"})
+    @Query("select c from Comment c where c.item.id in ?1 order by c.created")
     List<Comment> findCommentByItem_IdInOrderByCreated(List<Integer> itemId);
 }
@@ -2,11 +2,24 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemTextView;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface ItemRepository extends JpaRepository<Item, Integer> {
 
@@ -15,9 +28,43 @@ public interface ItemRepository extends JpaRepository<Item, Integer> {
             "or upper(i.description) like upper(concat('%', ?1, '%')))")
     Page<Item> search(String text, Pageable pageable);
 
+    /**
+     * Вариант {@link #search} для PostgreSQL: условие ilike '%text%' обслуживается GIN-индексами pg_trgm (schema-trgm.sql).
+     */
+    @Query(value = "select * from items i " +
+            "where i.available = true and (i.name ilike concat('%', :text, '%') " +
+            "or i.description ilike concat('%', :text, '%')) " +
+            "order by i.id limit :limit offset :offset", nativeQuery = true)
+    List<Item> searchIlike(@Param("text") String text, @Param("limit") int limit, @Param("offset") long offset);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = ?1")
+    Optional<Item> findItemForUpdate(Integer id);
+
     Page<Item> findAllByOwner_IdIs(Integer ownerId, Pageable pageable);
 
+    /**
+     * Условие по внешнему ключу request_id, а не по id присоединённого запроса, чтобы использовался индекс ix_items_request_id.
+     */
+    @Query("select i from Item i where i.request.id = ?1")
     List<Item> findAllByRequest_IdIs(Integer requestId);
 
+    @Query("select i from Item i where i.request.id in ?1")
     List<Item> findAllByRequest_IdIn(List<Integer> requests);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select i.id as id, i.name as name, i.description as description, i.available as available from Item i")
+    Stream<ItemTextView> streamItemTexts();
+
+    /**
+     * Товары, которые база удалит каскадом вместе с пользователем: его собственные и созданные по его запросам.
+     */
+    @Query("select i.id from Item i left join i.request r where i.owner.id = ?1 or r.requestor.id = ?1")
+    List<Integer> findIdsCascadedByUser(Integer userId);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemAvailabilityDto(i.id, i.available, i.owner.id) from Item i where i.id = ?1")
+    Optional<ItemAvailabilityDto> findItemAvailability(Integer id);
+
+    @EntityGraph(attributePaths = {"owner", "request", "request.requestor"})
+    List<Item> findAllByIdIn(Collection<Integer> ids);
 }
@@ -0,0 +1,322 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dto.ItemTextView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Поиск товаров по инвертированному индексу: слово названия или описания в нижнем регистре - множество id товаров.
+ * Каждое слово запроса должно входить подстрокой хотя бы в одно слово товара, поэтому по словарю индекса
+ * находится надмножество подходящих товаров; слова словаря, содержащие слово запроса, ищутся
+ * по {@link TrigramTermIndex}. Кандидаты загружаются из базы и проверяются по исходному условию,
+ * так что результат совпадает с {@link DatabaseItemSearchEngine}.
+ * Стемминг не применяется: он расширил бы результат по сравнению с поиском подстроки.
+ * При сортировке по релевантности кандидаты оцениваются {@link ItemSearchRanker} по частотам слов и длинам полей,
+ * хранящимся в индексе, а из базы загружаются только лучшие offset + size товаров.
+ * Пока индекс не заполнен и для запросов без букв и цифр поиск выполняется в базе данных в порядке id,
+ * так же как поиск без ранжирования при слишком большом числе кандидатов.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "index", matchIfMissing = true)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Slf4j
+public class InvertedIndexItemSearchEngine implements ItemSearchEngine {
+    private static final int HYDRATION_CHUNK = 100;
+
+    private final ItemRepository itemRepository;
+    private final DatabaseItemSearchEngine databaseItemSearchEngine;
+    private final ItemSearchRanker itemSearchRanker;
+    private final Map<String, Set<Integer>> postings = new HashMap<>();
+    private final TrigramTermIndex termIndex = new TrigramTermIndex();
+    private final Map<Integer, IndexedItem> indexedItems = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalNameLength;
+    private long totalDescriptionLength;
+    private volatile boolean ready;
+
+    @Value("${shareit.search.index.max-candidates:10000}")
+    private int maxCandidates = 10000;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        try (Stream<ItemTextView> items = itemRepository.streamItemTexts()) {
+            items.forEach(item -> index(item.getId(), item.getName(), item.getDescription(),
+                    Boolean.TRUE.equals(item.getAvailable()), false));
+        }
+        ready = true;
+        log.info("Поисковый индекс заполнен: {} товаров, {} слов, {} триграмм.",
+                indexedItems.size(), postings.size(), termIndex.getGramCount());
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        Set<String> queryTokens = new HashSet<>(ItemSearchTokenizer.tokenize(text));
+        if (!ready || queryTokens.isEmpty()) {
+            return databaseItemSearchEngine.search(text, pageable);
+        }
+        Set<Integer> candidates;
+        lock.readLock().lock();
+        try {
+            candidates = findCandidates(queryTokens, new HashMap<>(), new HashMap<>());
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (candidates.size() > maxCandidates) {
+            return databaseItemSearchEngine.search(text, pageable);
+        }
+        return hydrate(candidates, text, pageable);
+    }
+
+    /**
+     * Без заполненного индекса и для запросов без букв и цифр возвращает товары в порядке id:
+     * во втором случае у всех товаров нулевая оценка, и порядок совпадает с ранжированием.
+     * Если проверка по исходному условию отбросила часть лучших кандидатов, отбор повторяется с вдвое большим лимитом,
+     * но не больше maxCandidates: на этом лимите возвращаются найденные среди maxCandidates лучших кандидатов товары.
+     * Страницы дальше maxCandidates, как и в {@link #search}, ищутся в базе.
+     */
+    @Override
+    public List<Item> searchByRelevance(String text, Pageable pageable) {
+        Set<String> queryTokens = new HashSet<>(ItemSearchTokenizer.tokenize(text));
+        if (!ready || queryTokens.isEmpty()) {
+            return databaseItemSearchEngine.search(text, pageable);
+        }
+        String upperText = text.toUpperCase(Locale.ROOT);
+        int limit = (int) pageable.getOffset() + pageable.getPageSize();
+        if (limit > maxCandidates) {
+            return databaseItemSearchEngine.search(text, pageable);
+        }
+        Map<Integer, Item> loaded = new HashMap<>();
+        for (int wanted = limit; ; wanted = Math.min(wanted * 2, maxCandidates)) {
+            List<Integer> ranked = rank(queryTokens, wanted);
+            List<Integer> missing = ranked.stream()
+                    .filter(id -> !loaded.containsKey(id))
+                    .collect(Collectors.toList());
+            for (int from = 0; from < missing.size(); from += HYDRATION_CHUNK) {
+                itemRepository.findAllByIdIn(missing.subList(from, Math.min(from + HYDRATION_CHUNK, missing.size())))
+                        .forEach(item -> loaded.put(item.getId(), item));
+            }
+            List<Item> found = ranked.stream()
+                    .map(loaded::get)
+                    .filter(item -> item != null && matches(item, upperText))
+                    .collect(Collectors.toList());
+            if (found.size() >= limit || ranked.size() < wanted || wanted == maxCandidates) {
+                return found.stream()
+                        .skip(pageable.getOffset())
+                        .limit(pageable.getPageSize())
+                        .collect(Collectors.toList());
+            }
+        }
+    }
+
+    @Override
+    public void itemSaved(Item item) {
+        index(item.getId(), item.getName(), item.getDescription(), Boolean.TRUE.equals(item.getAvailable()), true);
+    }
+
+    @Override
+    public void itemDeleted(Integer itemId) {
+        lock.writeLock().lock();
+        try {
+            removeItem(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void index(Integer itemId, String name, String description, boolean available, boolean replace) {
+        IndexedItem indexed = new IndexedItem(ItemSearchTokenizer.tokenize(name),
+                ItemSearchTokenizer.tokenize(description), available);
+        lock.writeLock().lock();
+        try {
+            if (!replace && indexedItems.containsKey(itemId)) {
+                return;
+            }
+            removeItem(itemId);
+            indexedItems.put(itemId, indexed);
+            totalNameLength += indexed.getNameLength();
+            totalDescriptionLength += indexed.getDescriptionLength();
+            for (String term : indexed.getTerms()) {
+                postings.computeIfAbsent(term, key -> {
+                    termIndex.add(key);
+                    return new HashSet<>();
+                }).add(itemId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeItem(Integer itemId) {
+        IndexedItem indexed = indexedItems.remove(itemId);
+        if (indexed == null) {
+            return;
+        }
+        totalNameLength -= indexed.getNameLength();
+        totalDescriptionLength -= indexed.getDescriptionLength();
+        for (String term : indexed.getTerms()) {
+            Set<Integer> ids = postings.get(term);
+            ids.remove(itemId);
+            if (ids.isEmpty()) {
+                postings.remove(term);
+                termIndex.remove(term);
+            }
+        }
+    }
+
+    /**
+     * Находит доступные товары, в словах которых встречается каждое слово запроса.
+     * Для каждого слова запроса сохраняет найденные слова словаря в matchedTerms
+     * и число товаров с ними в itemFrequencies. Вызывается под блокировкой чтения.
+     */
+    private Set<Integer> findCandidates(Set<String> queryTokens, Map<String, Set<String>> matchedTerms,
+                                        Map<String, Integer> itemFrequencies) {
+        Set<Integer> candidates = null;
+        for (String token : queryTokens) {
+            Set<String> terms = termIndex.findContaining(token);
+            Set<Integer> matched = new HashSet<>();
+            for (String term : terms) {
+                matched.addAll(postings.get(term));
+            }
+            matchedTerms.put(token, terms);
+            itemFrequencies.put(token, matched.size());
+            if (candidates == null) {
+                candidates = matched;
+            } else {
+                candidates.retainAll(matched);
+            }
+            if (candidates.isEmpty()) {
+                return candidates;
+            }
+        }
+        candidates.removeIf(id -> !indexedItems.get(id).isAvailable());
+        return candidates;
+    }
+
+    /**
+     * Лучшие limit кандидатов по оценке, посчитанной по индексу.
+     */
+    private List<Integer> rank(Set<String> queryTokens, int limit) {
+        lock.readLock().lock();
+        try {
+            Map<String, Set<String>> matchedTerms = new HashMap<>();
+            Map<String, Integer> itemFrequencies = new HashMap<>();
+            Set<Integer> candidates = findCandidates(queryTokens, matchedTerms, itemFrequencies);
+            int itemCount = indexedItems.size();
+            ItemSearchStatistics statistics = new ItemSearchStatistics(itemCount,
+                    itemFrequencies,
+                    itemCount == 0 ? 0 : (double) totalNameLength / itemCount,
+                    itemCount == 0 ? 0 : (double) totalDescriptionLength / itemCount);
+            ItemSearchRanker.TopIds topIds = itemSearchRanker.topIds(limit);
+            for (Integer id : candidates) {
+                IndexedItem indexed = indexedItems.get(id);
+                topIds.offer(id, itemSearchRanker.score(queryTokens, statistics,
+                        token -> indexed.frequency(matchedTerms.get(token), indexed.getNameCounts()),
+                        indexed.getNameLength(),
+                        token -> indexed.frequency(matchedTerms.get(token), indexed.getDescriptionCounts()),
+                        indexed.getDescriptionLength()));
+            }
+            return topIds.getIds();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Item> hydrate(Set<Integer> candidates, String text, Pageable pageable) {
+        String upperText = text.toUpperCase(Locale.ROOT);
+        List<Integer> ids = new ArrayList<>(new TreeSet<>(candidates));
+        long skip = pageable.getOffset();
+        List<Item> result = new ArrayList<>();
+        for (int from = 0; from < ids.size() && result.size() < pageable.getPageSize(); from += HYDRATION_CHUNK) {
+            List<Item> items = itemRepository.findAllByIdIn(ids.subList(from, Math.min(from + HYDRATION_CHUNK, ids.size())))
+                    .stream()
+                    .filter(item -> matches(item, upperText))
+                    .sorted(Comparator.comparing(Item::getId))
+                    .collect(Collectors.toList());
+            for (Item item : items) {
+                if (skip > 0) {
+                    skip--;
+                } else if (result.size() < pageable.getPageSize()) {
+                    result.add(item);
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean matches(Item item, String upperText) {
+        return Boolean.TRUE.equals(item.getAvailable())
+                && (item.getName().toUpperCase(Locale.ROOT).contains(upperText)
+                || item.getDescription().toUpperCase(Locale.ROOT).contains(upperText));
+    }
+
+    /**
+     * Различные слова товара с числом вхождений в название и в описание и длины полей в словах.
+     */
+    @Getter
+    private static class IndexedItem {
+        private final String[] terms;
+        private final int[] nameCounts;
+        private final int[] descriptionCounts;
+        private final int nameLength;
+        private final int descriptionLength;
+        private final boolean available;
+
+        IndexedItem(List<String> nameTokens, List<String> descriptionTokens, boolean available) {
+            Map<String, int[]> counts = new LinkedHashMap<>();
+            nameTokens.forEach(token -> counts.computeIfAbsent(token, key -> new int[2])[0]++);
+            descriptionTokens.forEach(token -> counts.computeIfAbsent(token, key -> new int[2])[1]++);
+            this.terms = counts.keySet().toArray(new String[0]);
+            this.nameCounts = new int[terms.length];
+            this.descriptionCounts = new int[terms.length];
+            for (int i = 0; i < terms.length; i++) {
+                nameCounts[i] = counts.get(terms[i])[0];
+                descriptionCounts[i] = counts.get(terms[i])[1];
+            }
+            this.nameLength = nameTokens.size();
+            this.descriptionLength = descriptionTokens.size();
+            this.available = available;
+        }
+
+        /**
+         * Число слов поля, входящих в matchedTerms.
+         */
+        int frequency(Set<String> matchedTerms, int[] fieldCounts) {
+            int frequency = 0;
+            for (int i = 0; i < terms.length; i++) {
+                if (fieldCounts[i] > 0 && matchedTerms.contains(terms[i])) {
+                    frequency += fieldCounts[i];
+                }
+            }
+            return frequency;
+        }
+    }
+}
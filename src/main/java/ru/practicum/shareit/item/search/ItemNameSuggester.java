@@ -0,0 +1,114 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemTextView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Подсказки названий доступных товаров по началу названия без учёта регистра.
+ * Названия хранятся в сжатом префиксном дереве, которое заполняется при запуске
+ * и обновляется после фиксации транзакции, изменившей товар.
+ */
+@Component
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Slf4j
+public class ItemNameSuggester {
+    private final ItemRepository itemRepository;
+    private final RadixTrie trie = new RadixTrie();
+    private final Map<Integer, String> keys = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        try (Stream<ItemTextView> items = itemRepository.streamItemTexts()) {
+            items.forEach(item -> index(item.getId(), item.getName(), item.getAvailable(), false));
+        }
+        log.info("Дерево подсказок заполнено: {} товаров, {} узлов.", keys.size(), trie.getNodeCount());
+    }
+
+    /**
+     * Возвращает до size различных названий, начинающихся с prefix: сначала названия, которые носит больше
+     * товаров, при равном числе товаров - в алфавитном порядке.
+     */
+    public List<String> suggest(String prefix, int size) {
+        lock.readLock().lock();
+        try {
+            return trie.findByPrefix(prefix.toLowerCase(Locale.ROOT), size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void itemSaved(Item item) {
+        Integer itemId = item.getId();
+        String name = item.getName();
+        Boolean available = item.getAvailable();
+        afterCommit(() -> index(itemId, name, available, true));
+    }
+
+    public void itemDeleted(Integer itemId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(itemId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void index(Integer itemId, String name, Boolean available, boolean replace) {
+        lock.writeLock().lock();
+        try {
+            if (!replace && keys.containsKey(itemId)) {
+                return;
+            }
+            remove(itemId);
+            if (Boolean.TRUE.equals(available)) {
+                String key = name.toLowerCase(Locale.ROOT);
+                keys.put(itemId, key);
+                trie.put(key, itemId, name);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Integer itemId) {
+        String key = keys.remove(itemId);
+        if (key != null) {
+            trie.remove(key, itemId);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Кэш результатов поиска товаров на Caffeine с ограничением числа записей и времени жизни записи.
+ * При изменении товара удаляются только запросы, которым товар соответствовал до или после изменения:
+ * товар доступен и текст запроса входит в название или описание.
+ */
+@Component
+@ManagedResource(objectName = "ru.practicum.shareit:type=ItemSearchCache", description = "Кэш поиска товаров")
+public class ItemSearchCache {
+    private final Cache<Key, List<ItemDto>> entries;
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public ItemSearchCache(@Value("${shareit.search.cache.max-size:1000}") int maxSize,
+                           @Value("${shareit.search.cache.ttl:60s}") Duration ttl) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Результат, загруженный во время изменения товара, может быть устаревшим: если за время загрузки
+     * кэш инвалидировался, запись удаляется сразу после сохранения.
+     */
+    public List<ItemDto> get(String text, int from, int size, ItemSearchSort sort, Supplier<List<ItemDto>> loader) {
+        Key key = new Key(text.toLowerCase(Locale.ROOT), from, size, sort);
+        List<ItemDto> cached = entries.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long readVersion = version.get();
+        List<ItemDto> items = List.copyOf(loader.get());
+        entries.put(key, items);
+        if (version.get() != readVersion) {
+            entries.invalidate(key);
+        }
+        return items;
+    }
+
+    /**
+     * Удаляет запросы, затронутые изменением товара, сразу и повторно после завершения текущей транзакции.
+     * before - товар до изменения или null при создании, after - после изменения или null при удалении.
+     */
+    public void itemChanged(ItemDto before, ItemDto after) {
+        invalidate(before, after);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(before, after);
+                }
+            });
+        }
+    }
+
+    /**
+     * Удаляет запросы, которым соответствует хотя бы один из созданных товаров, за один проход по кэшу,
+     * сразу и повторно после завершения текущей транзакции.
+     */
+    public void itemsCreated(List<ItemDto> created) {
+        invalidateAll(created);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidateAll(created);
+                }
+            });
+        }
+    }
+
+    @ManagedAttribute(description = "Число попаданий")
+    public long getHitCount() {
+        return entries.stats().hitCount();
+    }
+
+    @ManagedAttribute(description = "Число промахов")
+    public long getMissCount() {
+        return entries.stats().missCount();
+    }
+
+    @ManagedAttribute(description = "Число записей, вытесненных по размеру или времени жизни")
+    public long getEvictionCount() {
+        entries.cleanUp();
+        return entries.stats().evictionCount();
+    }
+
+    @ManagedAttribute(description = "Число записей, удалённых при изменении товаров")
+    public long getInvalidationCount() {
+        return invalidations.get();
+    }
+
+    @ManagedAttribute(description = "Число записей")
+    public long getSize() {
+        entries.cleanUp();
+        return entries.estimatedSize();
+    }
+
+    @ManagedOperation(description = "Очистить кэш")
+    public void clear() {
+        version.incrementAndGet();
+        invalidations.addAndGet(entries.estimatedSize());
+        entries.invalidateAll();
+    }
+
+    private void invalidate(ItemDto before, ItemDto after) {
+        invalidateIf(text -> matches(before, text) || matches(after, text));
+    }
+
+    private void invalidateAll(List<ItemDto> items) {
+        invalidateIf(text -> items.stream().anyMatch(item -> matches(item, text)));
+    }
+
+    private void invalidateIf(Predicate<String> affected) {
+        version.incrementAndGet();
+        entries.asMap().keySet().removeIf(key -> {
+            if (affected.test(key.getText().toUpperCase(Locale.ROOT))) {
+                invalidations.incrementAndGet();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private boolean matches(ItemDto item, String upperText) {
+        return item != null && Boolean.TRUE.equals(item.getAvailable())
+                && (item.getName().toUpperCase(Locale.ROOT).contains(upperText)
+                || item.getDescription().toUpperCase(Locale.ROOT).contains(upperText));
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class Key {
+        private final String text;
+        private final int from;
+        private final int size;
+        private final ItemSearchSort sort;
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Поиск доступных товаров по подстроке в названии или описании без учёта регистра.
+ * Реализации обязаны возвращать тот же результат, что и {@link DatabaseItemSearchEngine}, в порядке возрастания id.
+ */
+public interface ItemSearchEngine {
+    List<Item> search(String text, Pageable pageable);
+
+    /**
+     * Поиск с сортировкой по убыванию релевантности. Реализации без ранжирования возвращают товары в порядке id.
+     */
+    default List<Item> searchByRelevance(String text, Pageable pageable) {
+        return search(text, pageable);
+    }
+
+    /**
+     * Вызывается после создания или изменения товара.
+     */
+    default void itemSaved(Item item) {
+    }
+
+    /**
+     * Вызывается после удаления товара.
+     */
+    default void itemDeleted(Integer itemId) {
+    }
+}
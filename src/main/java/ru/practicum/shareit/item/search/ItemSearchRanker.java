@@ -0,0 +1,108 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Ранжирование найденных товаров по BM25: для каждого слова запроса складываются оценки
+ * по названию и по описанию с весами, совпадения в названии весят больше.
+ * Частота слова в поле - число слов поля, содержащих слово запроса подстрокой, как и при поиске.
+ */
+@Component
+public class ItemSearchRanker {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Comparator<ScoredId> BEST_FIRST = Comparator.comparingDouble(ScoredId::getScore).reversed()
+            .thenComparing(ScoredId::getId);
+
+    @Value("${shareit.search.ranking.name-weight:2.0}")
+    private double nameWeight = 2.0;
+
+    @Value("${shareit.search.ranking.description-weight:1.0}")
+    private double descriptionWeight = 1.0;
+
+    /**
+     * Создаёт отбор limit лучших id. В памяти хранится не больше limit id.
+     */
+    public TopIds topIds(int limit) {
+        return new TopIds(limit);
+    }
+
+    /**
+     * Оценка по частотам слов запроса в названии и описании и длинам полей в словах,
+     * чтобы индекс мог ранжировать товары без загрузки их текста.
+     */
+    public double score(Collection<String> queryTokens, ItemSearchStatistics statistics,
+                        ToIntFunction<String> nameFrequency, int nameLength,
+                        ToIntFunction<String> descriptionFrequency, int descriptionLength) {
+        double score = 0;
+        for (String token : queryTokens) {
+            int itemFrequency = statistics.getItemFrequencies().getOrDefault(token, 0);
+            double idf = Math.log(1 + (statistics.getItemCount() - itemFrequency + 0.5) / (itemFrequency + 0.5));
+            score += idf * (nameWeight * fieldScore(nameFrequency.applyAsInt(token), nameLength,
+                    statistics.getAverageNameLength())
+                    + descriptionWeight * fieldScore(descriptionFrequency.applyAsInt(token), descriptionLength,
+                    statistics.getAverageDescriptionLength()));
+        }
+        return score;
+    }
+
+    private double fieldScore(int frequency, int length, double averageLength) {
+        if (frequency == 0) {
+            return 0;
+        }
+        double lengthRatio = averageLength > 0 ? length / averageLength : 1;
+        return frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * lengthRatio));
+    }
+
+    public static class TopIds {
+        private final int limit;
+        private final PriorityQueue<ScoredId> heap;
+
+        private TopIds(int limit) {
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(Math.max(limit, 1), BEST_FIRST.reversed());
+        }
+
+        public void offer(Integer id, double score) {
+            if (limit <= 0) {
+                return;
+            }
+            ScoredId scored = new ScoredId(id, score);
+            if (heap.size() < limit) {
+                heap.add(scored);
+            } else if (BEST_FIRST.compare(scored, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(scored);
+            }
+        }
+
+        /**
+         * Id по убыванию оценки, при равной оценке - по возрастанию id.
+         */
+        public List<Integer> getIds() {
+            List<ScoredId> sorted = new ArrayList<>(heap);
+            sorted.sort(BEST_FIRST);
+            return sorted.stream()
+                    .map(ScoredId::getId)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class ScoredId {
+        private final Integer id;
+        private final double score;
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.error.ValidationException;
+
+public enum ItemSearchSort {
+    ID,
+    RELEVANCE;
+
+    public static ItemSearchSort from(String sort) {
+        if (sort == null) {
+            return ID;
+        }
+        for (ItemSearchSort value : values()) {
+            if (value.name().equalsIgnoreCase(sort)) {
+                return value;
+            }
+        }
+        throw new ValidationException("Unknown sort: " + sort);
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * Статистика индекса для ранжирования: число товаров, число товаров с каждым словом запроса
+ * и средняя длина названия и описания в словах.
+ */
+@Data
+@AllArgsConstructor
+public class ItemSearchStatistics {
+    private int itemCount;
+    private Map<String, Integer> itemFrequencies;
+    private double averageNameLength;
+    private double averageDescriptionLength;
+}
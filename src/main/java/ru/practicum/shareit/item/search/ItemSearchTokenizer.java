@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Разбиение текста на слова из букв и цифр в нижнем регистре.
+ */
+final class ItemSearchTokenizer {
+    private static final Pattern TOKEN_DELIMITER = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private ItemSearchTokenizer() {
+    }
+
+    static List<String> tokenize(String text) {
+        return TOKEN_DELIMITER.splitAsStream(text.toLowerCase(Locale.ROOT))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toList());
+    }
+}
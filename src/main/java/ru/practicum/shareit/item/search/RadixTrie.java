@@ -0,0 +1,234 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Сжатое префиксное дерево: цепочки узлов с одним потомком хранятся одним узлом с меткой-строкой,
+ * потомки узла - массив, упорядоченный по первому символу метки.
+ * Ключу соответствует набор id товаров с отображаемым названием, вес ключа - число товаров с ним.
+ * Узел хранит наибольший вес ключей своего поддерева, поэтому ключи с наибольшим весом находятся
+ * без обхода всего поддерева префикса. Класс не потокобезопасен.
+ */
+final class RadixTrie {
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Comparator<Candidate> BEST_FIRST = Comparator.comparingInt((Candidate candidate) -> -candidate.weight)
+            .thenComparing(candidate -> candidate.key)
+            .thenComparing(candidate -> !candidate.terminal);
+
+    private final Node root = new Node("");
+    private int nodeCount = 1;
+
+    void put(String key, Integer id, String name) {
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        String rest = key;
+        while (!rest.isEmpty()) {
+            int index = findChild(node, rest.charAt(0));
+            if (index < 0) {
+                Node leaf = new Node(rest);
+                insertChild(node, -index - 1, leaf);
+                path.push(node);
+                node = leaf;
+                break;
+            }
+            Node child = node.children[index];
+            int common = commonPrefixLength(child.label, rest);
+            if (common < child.label.length()) {
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children = new Node[]{child};
+                split.maxWeight = child.maxWeight;
+                node.children[index] = split;
+                nodeCount++;
+                child = split;
+            }
+            path.push(node);
+            node = child;
+            rest = rest.substring(common);
+        }
+        if (node.names == null) {
+            node.names = new TreeMap<>();
+        }
+        node.names.put(id, name);
+        int weight = node.names.size();
+        node.maxWeight = Math.max(node.maxWeight, weight);
+        for (Node parent : path) {
+            parent.maxWeight = Math.max(parent.maxWeight, weight);
+        }
+    }
+
+    void remove(String key, Integer id) {
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        String rest = key;
+        while (!rest.isEmpty()) {
+            int index = findChild(node, rest.charAt(0));
+            if (index < 0 || !rest.startsWith(node.children[index].label)) {
+                return;
+            }
+            path.push(node);
+            node = node.children[index];
+            rest = rest.substring(node.label.length());
+        }
+        if (node.names == null || node.names.remove(id) == null) {
+            return;
+        }
+        if (node.names.isEmpty()) {
+            node.names = null;
+        }
+        while (node != root && node.names == null && node.children.length <= 1) {
+            Node parent = path.pop();
+            int index = findChild(parent, node.label.charAt(0));
+            if (node.children.length == 0) {
+                removeChild(parent, index);
+            } else {
+                Node child = node.children[0];
+                child.label = node.label + child.label;
+                parent.children[index] = child;
+            }
+            nodeCount--;
+            node = parent;
+        }
+        updateMaxWeight(node);
+        while (!path.isEmpty()) {
+            updateMaxWeight(path.pop());
+        }
+    }
+
+    /**
+     * Возвращает до limit названий с ключами, начинающимися с prefix, по убыванию веса ключа,
+     * при равном весе - в лексикографическом порядке ключей.
+     */
+    List<String> findByPrefix(String prefix, int limit) {
+        Node node = root;
+        String rest = prefix;
+        StringBuilder key = new StringBuilder();
+        while (!rest.isEmpty()) {
+            int index = findChild(node, rest.charAt(0));
+            if (index < 0) {
+                return List.of();
+            }
+            Node child = node.children[index];
+            if (rest.length() <= child.label.length()) {
+                if (!child.label.startsWith(rest)) {
+                    return List.of();
+                }
+                rest = "";
+            } else if (rest.startsWith(child.label)) {
+                rest = rest.substring(child.label.length());
+            } else {
+                return List.of();
+            }
+            key.append(child.label);
+            node = child;
+        }
+        List<String> result = new ArrayList<>();
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(BEST_FIRST);
+        if (node.maxWeight > 0) {
+            queue.add(new Candidate(key.toString(), node, node.maxWeight, false));
+        }
+        while (!queue.isEmpty() && result.size() < limit) {
+            Candidate candidate = queue.poll();
+            Node current = candidate.node;
+            if (candidate.terminal) {
+                result.add(current.names.firstEntry().getValue());
+                continue;
+            }
+            if (current.names != null) {
+                queue.add(new Candidate(candidate.key, current, current.names.size(), true));
+            }
+            for (Node child : current.children) {
+                queue.add(new Candidate(candidate.key + child.label, child, child.maxWeight, false));
+            }
+        }
+        return result;
+    }
+
+    int getNodeCount() {
+        return nodeCount;
+    }
+
+    private void updateMaxWeight(Node node) {
+        int maxWeight = node.names == null ? 0 : node.names.size();
+        for (Node child : node.children) {
+            maxWeight = Math.max(maxWeight, child.maxWeight);
+        }
+        node.maxWeight = maxWeight;
+    }
+
+    private int findChild(Node node, char first) {
+        int low = 0;
+        int high = node.children.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char current = node.children[middle].label.charAt(0);
+            if (current < first) {
+                low = middle + 1;
+            } else if (current > first) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private void insertChild(Node node, int index, Node child) {
+        Node[] children = Arrays.copyOf(node.children, node.children.length + 1);
+        System.arraycopy(children, index, children, index + 1, node.children.length - index);
+        children[index] = child;
+        node.children = children;
+        nodeCount++;
+    }
+
+    private void removeChild(Node node, int index) {
+        Node[] children = new Node[node.children.length - 1];
+        System.arraycopy(node.children, 0, children, 0, index);
+        System.arraycopy(node.children, index + 1, children, index, children.length - index);
+        node.children = children.length == 0 ? NO_CHILDREN : children;
+    }
+
+    private int commonPrefixLength(String first, String second) {
+        int length = Math.min(first.length(), second.length());
+        int i = 0;
+        while (i < length && first.charAt(i) == second.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+        private String label;
+        private Node[] children = NO_CHILDREN;
+        private TreeMap<Integer, String> names;
+        private int maxWeight;
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * Элемент очереди поиска: ключ узла (terminal) с его весом или всё поддерево узла с наибольшим весом в нём.
+     */
+    private static final class Candidate {
+        private final String key;
+        private final Node node;
+        private final int weight;
+        private final boolean terminal;
+
+        private Candidate(String key, Node node, int weight, boolean terminal) {
+            this.key = key;
+            this.node = node;
+            this.weight = weight;
+            this.terminal = terminal;
+        }
+    }
+}
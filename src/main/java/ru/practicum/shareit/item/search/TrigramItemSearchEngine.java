@@ -0,0 +1,53 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Поиск в PostgreSQL запросом ilike, который использует триграммные GIN-индексы (профиль trgm).
+ * На других базах данных выполняется исходный запрос {@link DatabaseItemSearchEngine}.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "trigram")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Slf4j
+public class TrigramItemSearchEngine implements ItemSearchEngine {
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    private final ItemRepository itemRepository;
+    private final DatabaseItemSearchEngine databaseItemSearchEngine;
+    private final DataSource dataSource;
+    private boolean postgresql;
+
+    @PostConstruct
+    public void init() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            postgresql = POSTGRESQL.equals(connection.getMetaData().getDatabaseProductName());
+        }
+        if (!postgresql) {
+            log.warn("Триграммный поиск доступен только в PostgreSQL, используется запрос like.");
+        }
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        if (!postgresql) {
+            return databaseItemSearchEngine.search(text, pageable);
+        }
+        return itemRepository.searchIlike(text, pageable.getPageSize(), pageable.getOffset());
+    }
+}
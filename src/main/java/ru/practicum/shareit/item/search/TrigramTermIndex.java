@@ -0,0 +1,87 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Индекс словаря по триграммам: триграмма - множество слов, в которые она входит.
+ * Слова короче трёх символов хранятся под ключом, равным самому слову.
+ * Слова с подстрокой из трёх и более символов берутся из самого короткого множества её триграмм и проверяются,
+ * более короткая подстрока ищется среди ключей индекса, число которых не зависит от размера словаря.
+ * Класс не потокобезопасен.
+ */
+final class TrigramTermIndex {
+    private static final int GRAM_LENGTH = 3;
+
+    private final Map<String, Set<String>> termsByGram = new HashMap<>();
+
+    void add(String term) {
+        for (String gram : grams(term)) {
+            termsByGram.computeIfAbsent(gram, key -> new HashSet<>()).add(term);
+        }
+    }
+
+    void remove(String term) {
+        for (String gram : grams(term)) {
+            Set<String> terms = termsByGram.get(gram);
+            if (terms != null) {
+                terms.remove(term);
+                if (terms.isEmpty()) {
+                    termsByGram.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Слова словаря, содержащие token подстрокой.
+     */
+    Set<String> findContaining(String token) {
+        Set<String> result = new HashSet<>();
+        if (token.isEmpty()) {
+            return result;
+        }
+        if (token.length() < GRAM_LENGTH) {
+            termsByGram.forEach((gram, terms) -> {
+                if (gram.contains(token)) {
+                    result.addAll(terms);
+                }
+            });
+            return result;
+        }
+        Set<String> rarest = null;
+        for (String gram : grams(token)) {
+            Set<String> terms = termsByGram.get(gram);
+            if (terms == null) {
+                return result;
+            }
+            if (rarest == null || terms.size() < rarest.size()) {
+                rarest = terms;
+            }
+        }
+        for (String term : rarest) {
+            if (term.contains(token)) {
+                result.add(term);
+            }
+        }
+        return result;
+    }
+
+    int getGramCount() {
+        return termsByGram.size();
+    }
+
+    private static Set<String> grams(String term) {
+        Set<String> grams = new HashSet<>();
+        if (term.length() < GRAM_LENGTH) {
+            grams.add(term);
+            return grams;
+        }
+        for (int i = 0; i + GRAM_LENGTH <= term.length(); i++) {
+            grams.add(term.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+}
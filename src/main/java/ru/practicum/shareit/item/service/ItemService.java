@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemExtendedDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -10,15 +12,21 @@ import java.util.List;
 public interface ItemService {
     ItemDto createItem(ItemDto item, ItemRequestDto itemRequestDto, Integer userId);
 
+    List<ItemBatchResultDto> createItems(List<ItemDto> items, Integer ownerId);
+
     ItemDto updateItem(ItemDto item, Integer userId);
 
     ItemExtendedDto getItem(Integer id, Integer userId);
 
+    ItemAvailabilityDto getItemAvailability(Integer id);
+
     void deleteItem(Integer id);
 
     List<ItemExtendedDto> getItems(Integer ownerId, Integer from, Integer size);
 
-    List<ItemDto> searchItems(String text, Integer ownerId, Integer from, Integer size);
+    List<ItemDto> searchItems(String text, Integer ownerId, Integer from, Integer size, String sort);
+
+    List<String> suggestItemNames(String prefix, Integer size);
 
     CommentDto createComment(CommentDto comment, Integer itemId, Integer userId);
 
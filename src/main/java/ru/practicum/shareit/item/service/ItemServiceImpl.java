@@ -3,15 +3,20 @@ package ru.practicum.shareit.item.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.dto.BookingExtendedDto;
+import ru.practicum.shareit.booking.dto.ItemBookingsDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.error.NotFoundException;
 import ru.practicum.shareit.error.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemExtendedDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
@@ -20,18 +25,28 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchSort;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.utils.PaginationUtils;
+import ru.practicum.shareit.utils.RequestLookupContext;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -42,8 +57,18 @@ public class ItemServiceImpl implements ItemService {
     private final CommentRepository commentRepository;
     private final UserService userService;
     private final BookingService bookingService;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemNameSuggester itemNameSuggester;
+    private final RequestLookupContext lookupContext;
+    private final ItemRequestRepository itemRequestRepository;
+    private static final int SUGGEST_SIZE_DEFAULT = 10;
+    private static final int BATCH_CHUNK = 500;
     private static final Pageable PAGEABLE_DEFAULT = PaginationUtils.createPageRequest(0, 100, Sort.by("id").ascending());
 
+    @Value("${shareit.items.batch.max-size:10000}")
+    private int batchMaxSize = 10000;
+
     @Override
     public ItemDto createItem(ItemDto itemDto, ItemRequestDto itemRequestDto, Integer ownerId) {
         validationItem(itemDto);
@@ -53,7 +78,83 @@ public class ItemServiceImpl implements ItemService {
         if (itemRequestDto != null) {
             item.setRequest(ItemRequestMapper.toItemRequest(itemRequestDto, userService.getUser(itemRequestDto.getRequestorId())));
         }
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        Item saved = itemRepository.save(item);
+        itemSearchEngine.itemSaved(saved);
+        itemNameSuggester.itemSaved(saved);
+        ItemDto created = ItemMapper.toItemDto(saved);
+        itemSearchCache.itemChanged(null, created);
+        return created;
+    }
+
+    /**
+     * Создаёт товары владельца пакетом. Владелец и запросы загружаются один раз на пакет,
+     * строки проверяются по тем же правилам, что и при создании одного товара,
+     * и строки с ошибками не мешают сохранению остальных.
+     * Товары сохраняются частями по BATCH_CHUNK, вставки отправляются пакетами JDBC (hibernate.jdbc.batch_size).
+     */
+    @Override
+    @Transactional
+    public List<ItemBatchResultDto> createItems(List<ItemDto> itemDtos, Integer ownerId) {
+        if (itemDtos.size() > batchMaxSize) {
+            throw new ValidationException("В пакете не может быть больше " + batchMaxSize + " товаров.");
+        }
+        User owner = UserMapper.toUser(userService.getUser(ownerId));
+        List<Integer> requestIds = itemDtos.stream()
+                .filter(Objects::nonNull)
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Integer, ItemRequest> requests = requestIds.isEmpty()
+                ? Collections.emptyMap()
+                : itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        ItemBatchResultDto[] results = new ItemBatchResultDto[itemDtos.size()];
+        List<Integer> indexes = new ArrayList<>();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < itemDtos.size(); i++) {
+            ItemDto itemDto = itemDtos.get(i);
+            try {
+                if (itemDto == null) {
+                    throw new ValidationException("Пустая строка пакета.");
+                }
+                validationItem(itemDto);
+                Item item = ItemMapper.toItem(itemDto);
+                item.setId(null);
+                item.setOwner(owner);
+                if (itemDto.getRequestId() != null) {
+                    ItemRequest request = requests.get(itemDto.getRequestId());
+                    if (request == null) {
+                        throw new NotFoundException("Запроса с id = " + itemDto.getRequestId() + " не существует.");
+                    }
+                    item.setRequest(request);
+                }
+                indexes.add(i);
+                items.add(item);
+            } catch (ValidationException | NotFoundException e) {
+                results[i] = new ItemBatchResultDto(i, null, e.getMessage());
+            }
+        }
+
+        List<ItemDto> created = new ArrayList<>(items.size());
+        for (int from = 0; from < items.size(); from += BATCH_CHUNK) {
+            List<Item> saved = itemRepository.saveAll(items.subList(from, Math.min(from + BATCH_CHUNK, items.size())));
+            for (Item item : saved) {
+                itemSearchEngine.itemSaved(item);
+                itemNameSuggester.itemSaved(item);
+                ItemDto dto = ItemMapper.toItemDto(item);
+                int index = indexes.get(created.size());
+                results[index] = new ItemBatchResultDto(index, dto, null);
+                created.add(dto);
+            }
+        }
+        if (!created.isEmpty()) {
+            itemSearchCache.itemsCreated(created);
+        }
+        log.info("Пакетная загрузка товаров владельца {}: создано {}, с ошибками {}.",
+                ownerId, created.size(), itemDtos.size() - created.size());
+        return List.of(results);
     }
 
     @Override
@@ -65,6 +166,7 @@ public class ItemServiceImpl implements ItemService {
         if (!exist.getOwner().getId().equals(ownerId)) {
             throw new NotFoundException("У товара другой владелец");
         }
+        ItemDto before = ItemMapper.toItemDto(exist);
         if (itemDto.getName() != null) {
             exist.setName(itemDto.getName());
         }
@@ -74,27 +176,41 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getAvailable() != null) {
             exist.setAvailable(itemDto.getAvailable());
         }
-        return ItemMapper.toItemDto(itemRepository.save(exist));
-
+        Item saved = itemRepository.save(exist);
+        lookupContext.evict(Item.class, saved.getId());
+        lookupContext.evict(ItemAvailabilityDto.class, saved.getId());
+        itemSearchEngine.itemSaved(saved);
+        itemNameSuggester.itemSaved(saved);
+        ItemDto updated = ItemMapper.toItemDto(saved);
+        itemSearchCache.itemChanged(before, updated);
+        return updated;
     }
 
     @Override
     public ItemExtendedDto getItem(Integer id, Integer userId) {
-        Item item = itemRepository.findById(id).orElseThrow(() ->
-                new NotFoundException("Товара с id = " + id + " не существует."));
+        Item item = getItemFromDB(id);
         List<CommentDto> comments = getComments(id);
+        ItemBookingsDto bookings = item.getOwner().getId().equals(userId)
+                ? bookingService.getItemsBookings(List.of(item.getId())).get(item.getId())
+                : null;
+        return ItemMapper.toItemExtendedDto(item, bookings, comments);
+    }
 
-        List<BookingExtendedDto> bookings = bookingService.getBookingsByItem(item.getId(), userId);
-
-        return ItemMapper.toItemExtendedDto(item,
-                getLastItemBooking(bookings),
-                getNextItemBooking(bookings),
-                comments);
+    @Override
+    public ItemAvailabilityDto getItemAvailability(Integer id) {
+        return lookupContext.get(ItemAvailabilityDto.class, id, () -> itemRepository.findItemAvailability(id).orElseThrow(() ->
+                new NotFoundException("Товара с id = " + id + " не существует.")));
     }
 
     @Override
     public void deleteItem(Integer id) {
+        Optional<Item> item = itemRepository.findById(id);
         itemRepository.deleteById(id);
+        lookupContext.evict(Item.class, id);
+        lookupContext.evict(ItemAvailabilityDto.class, id);
+        itemSearchEngine.itemDeleted(id);
+        itemNameSuggester.itemDeleted(id);
+        item.ifPresent(deleted -> itemSearchCache.itemChanged(ItemMapper.toItemDto(deleted), null));
     }
 
     @Override
@@ -102,35 +218,53 @@ public class ItemServiceImpl implements ItemService {
         if (ownerId == null) {
             throw new ValidationException("Не заполненное поле владельца");
         }
-        Map<Integer, List<CommentDto>> comments = getAllComments()
-                .stream().collect(Collectors.groupingBy(CommentDto::getItemId));
-
-        Map<Integer, List<BookingExtendedDto>> bookings = bookingService.getOwnersBookings(ownerId, null, null, null)
-                .stream()
-                .collect(Collectors.groupingBy((BookingExtendedDto bookingExtendedDto) -> bookingExtendedDto.getItem().getId()));
         Pageable pageable = from == null || size == null
                 ? PAGEABLE_DEFAULT
                 : PaginationUtils.createPageRequest(from, size, Sort.by("id").ascending());
-        return itemRepository.findAllByOwner_IdIs(ownerId, pageable)
+        List<Item> items = itemRepository.findAllByOwner_IdIs(ownerId, pageable).getContent();
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Integer> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        Map<Integer, List<CommentDto>> comments = getItemsComments(itemIds)
                 .stream()
-                .map(item -> ItemMapper.toItemExtendedDto(item,
-                        getLastItemBooking(bookings.get(item.getId())),
-                        getNextItemBooking(bookings.get(item.getId())),
-                        comments.get(item.getId())))
+                .collect(Collectors.groupingBy(CommentDto::getItemId));
+
+        Map<Integer, ItemBookingsDto> bookings = bookingService.getItemsBookings(itemIds);
+        return items.stream()
+                .map(item -> ItemMapper.toItemExtendedDto(item, bookings.get(item.getId()), comments.get(item.getId())))
                 .collect(Collectors.toList());
     }
 
     @Override
-    public List<ItemDto> searchItems(String text, Integer ownerId, Integer from, Integer size) {
+    public List<ItemDto> searchItems(String text, Integer ownerId, Integer from, Integer size, String sort) {
         if (text.isBlank()) {
             return Collections.emptyList();
         }
         Pageable pageable = from == null || size == null
                 ? PAGEABLE_DEFAULT
                 : PaginationUtils.createPageRequest(from, size, Sort.by("id").ascending());
-        return itemRepository.search(text, pageable)
-                .stream().map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
+        ItemSearchSort searchSort = ItemSearchSort.from(sort);
+        return itemSearchCache.get(text, (int) pageable.getOffset(), pageable.getPageSize(), searchSort, () ->
+                (searchSort == ItemSearchSort.RELEVANCE
+                        ? itemSearchEngine.searchByRelevance(text, pageable)
+                        : itemSearchEngine.search(text, pageable))
+                        .stream()
+                        .map(ItemMapper::toItemDto)
+                        .collect(Collectors.toList()));
+    }
+
+    @Override
+    public List<String> suggestItemNames(String prefix, Integer size) {
+        if (size != null && size <= 0) {
+            throw new ValidationException("Некорректное количество подсказок");
+        }
+        if (prefix == null || prefix.isBlank()) {
+            return Collections.emptyList();
+        }
+        return itemNameSuggester.suggest(prefix, size == null ? SUGGEST_SIZE_DEFAULT : size);
     }
 
     @Override
@@ -196,24 +330,8 @@ public class ItemServiceImpl implements ItemService {
     }
 
     private Item getItemFromDB(Integer itemId) {
-        return itemRepository.findById(itemId).orElseThrow(() ->
-                new NotFoundException("Товара с id = " + itemId + " не существует."));
-    }
-
-    private BookingExtendedDto getLastItemBooking(List<BookingExtendedDto> bookings) {
-        return bookings == null
-                ? null
-                : bookings.stream()
-                .filter(booking -> booking.getEnd().isBefore(LocalDateTime.now()))
-                .max(Comparator.comparing(BookingExtendedDto::getEnd)).orElse(null);
-    }
-
-    private BookingExtendedDto getNextItemBooking(List<BookingExtendedDto> bookings) {
-        return bookings == null
-                ? null
-                : bookings.stream()
-                .filter(booking -> booking.getStart().isAfter(LocalDateTime.now()))
-                .min(Comparator.comparing(BookingExtendedDto::getEnd)).orElse(null);
+        return lookupContext.get(Item.class, itemId, () -> itemRepository.findById(itemId).orElseThrow(() ->
+                new NotFoundException("Товара с id = " + itemId + " не существует.")));
     }
 
     private void validationItem(ItemDto item) {
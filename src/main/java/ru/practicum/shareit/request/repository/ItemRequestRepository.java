@@ -3,6 +3,7 @@ package ru.practicum.shareit.request.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.User;
 
@@ -12,4 +13,7 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Intege
     List<ItemRequest> findItemRequestByRequestorOrderByCreatedDesc(User user);
 
     Page<ItemRequest> findItemRequestByRequestor_IdIsNotOrderByCreatedDesc(Integer userId, Pageable pageable);
+
+    @Query("select r.id from ItemRequest r where r.requestor.id = ?1")
+    List<Integer> findIdsByRequestorId(Integer requestorId);
 }
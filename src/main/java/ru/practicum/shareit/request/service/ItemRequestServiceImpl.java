@@ -18,6 +18,7 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.utils.PaginationUtils;
+import ru.practicum.shareit.utils.RequestLookupContext;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -31,6 +32,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final UserService userService;
     private final ItemService itemService;
     private final ItemRequestRepository itemRequestRepository;
+    private final RequestLookupContext lookupContext;
     private static final Pageable PAGEABLE_DEFAULT = PaginationUtils.createPageRequest(0, 100, Sort.by("created").descending());
 
 
@@ -62,9 +64,9 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         User user = UserMapper.toUser(userService.getUser(userId));
 
         List<ItemDto> items = itemService.getItemsByRequestId(requestId);
-        ItemRequest itemRequest = itemRequestRepository.findById(requestId)
+        ItemRequest itemRequest = lookupContext.get(ItemRequest.class, requestId, () -> itemRequestRepository.findById(requestId)
                 .orElseThrow(() ->
-                        new NotFoundException("Запроса с id = " + requestId + " не существует."));
+                        new NotFoundException("Запроса с id = " + requestId + " не существует.")));
         return ItemRequestMapper.toItemRequestDto(itemRequest, items);
     }
 
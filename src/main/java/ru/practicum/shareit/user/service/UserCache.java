@@ -0,0 +1,122 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Кэш пользователей на Caffeine с ограничением числа записей и времени жизни записи:
+ * изменения пользователя в обход сервиса перестают быть видны не позже чем через ttl.
+ * Загруженный внутри транзакции пользователь попадает в общий кэш только после её фиксации.
+ */
+@Component
+@ManagedResource(objectName = "ru.practicum.shareit:type=UserCache", description = "Кэш пользователей")
+public class UserCache {
+    private final Cache<Integer, UserDto> entries;
+    private final AtomicLong version = new AtomicLong();
+
+    @Autowired
+    public UserCache(@Value("${shareit.user-cache.max-size:10000}") int maxSize,
+                     @Value("${shareit.user-cache.ttl:10m}") Duration ttl) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public UserDto get(Integer userId, Function<Integer, UserDto> loader) {
+        long readVersion = version.get();
+        UserDto user = entries.getIfPresent(userId);
+        if (user != null) {
+            return user;
+        }
+        user = loader.apply(userId);
+        put(userId, user, readVersion);
+        return user;
+    }
+
+    /**
+     * Удаляет пользователя сразу и повторно после завершения текущей транзакции,
+     * чтобы не сохранить значение, прочитанное до фиксации изменения.
+     */
+    public void evict(Integer userId) {
+        remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(userId);
+                }
+            });
+        }
+    }
+
+    @ManagedAttribute(description = "Число попаданий")
+    public long getHitCount() {
+        return entries.stats().hitCount();
+    }
+
+    @ManagedAttribute(description = "Число промахов")
+    public long getMissCount() {
+        return entries.stats().missCount();
+    }
+
+    @ManagedAttribute(description = "Число записей, вытесненных по размеру или времени жизни")
+    public long getEvictionCount() {
+        entries.cleanUp();
+        return entries.stats().evictionCount();
+    }
+
+    @ManagedAttribute(description = "Число записей")
+    public long getSize() {
+        entries.cleanUp();
+        return entries.estimatedSize();
+    }
+
+    @ManagedOperation(description = "Очистить кэш")
+    public void clear() {
+        version.incrementAndGet();
+        entries.invalidateAll();
+    }
+
+    private void put(Integer userId, UserDto user, long readVersion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            putIfNotChanged(userId, user, readVersion);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                putIfNotChanged(userId, user, readVersion);
+            }
+        });
+    }
+
+    /**
+     * Запись удаляется сразу после сохранения, если за время загрузки пользователь мог измениться.
+     */
+    private void putIfNotChanged(Integer userId, UserDto user, long readVersion) {
+        entries.put(userId, user);
+        if (version.get() != readVersion) {
+            entries.invalidate(userId);
+        }
+    }
+
+    private void remove(Integer userId) {
+        version.incrementAndGet();
+        entries.invalidate(userId);
+    }
+}
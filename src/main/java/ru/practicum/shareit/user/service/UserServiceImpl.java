@@ -6,14 +6,28 @@ import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.error.ConflictException;
 import ru.practicum.shareit.error.NotFoundException;
 import ru.practicum.shareit.error.ValidationException;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.RequestLookupContext;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -22,6 +36,14 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final RequestLookupContext lookupContext;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemNameSuggester itemNameSuggester;
 
 
     @Override
@@ -46,6 +68,8 @@ public class UserServiceImpl implements UserService {
         if (userDto.getName() != null) {
             exist.setName(userDto.getName());
         }
+        userCache.evict(userId);
+        lookupContext.evict(UserDto.class, userId);
         try {
             return UserMapper.toUserDto(userRepository.save(exist));
         } catch (DataIntegrityViolationException e) {
@@ -58,15 +82,30 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserDto getUser(Integer userId) {
-        return UserMapper.toUserDto(getUserFromDB(userId));
+        if (userId == null) {
+            throw new ValidationException("Id пользователя не может быть пустым.");
+        }
+        return lookupContext.get(UserDto.class, userId,
+                () -> userCache.get(userId, id -> UserMapper.toUserDto(getUserFromDB(id))));
     }
 
+    /**
+     * Товары и запросы пользователя база удаляет каскадом в обход Hibernate, поэтому после фиксации
+     * они удаляются из кэша второго уровня, поискового индекса, кэша поиска и дерева подсказок.
+     */
     @Override
+    @Transactional
     public void deleteUser(Integer userId) {
         if (userId == null) {
             throw new ValidationException("Id пользователя не может быть пустым.");
         }
+        List<Integer> itemIds = itemRepository.findIdsCascadedByUser(userId);
+        List<Integer> requestIds = itemRequestRepository.findIdsByRequestorId(userId);
+        userCache.evict(userId);
+        lookupContext.evict(UserDto.class, userId);
         userRepository.deleteById(userId);
+        itemIds.forEach(itemNameSuggester::itemDeleted);
+        afterCommit(() -> evictCascaded(itemIds, requestIds));
     }
 
     @Override
@@ -77,6 +116,36 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    private void evictCascaded(List<Integer> itemIds, List<Integer> requestIds) {
+        Cache cache = entityManagerFactory.getCache();
+        for (Integer itemId : itemIds) {
+            cache.evict(Item.class, itemId);
+            lookupContext.evict(Item.class, itemId);
+            lookupContext.evict(ItemAvailabilityDto.class, itemId);
+            itemSearchEngine.itemDeleted(itemId);
+        }
+        for (Integer requestId : requestIds) {
+            cache.evict(ItemRequest.class, requestId);
+            lookupContext.evict(ItemRequest.class, requestId);
+        }
+        if (!itemIds.isEmpty()) {
+            itemSearchCache.clear();
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     private User getUserFromDB(Integer userId) {
         if (userId == null) {
             throw new ValidationException("Id пользователя не может быть пустым.");
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.utils;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.user.service.UserCache;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Счётчики попаданий и промахов и размер кэшей приложения: shareit.cache.gets (теги cache, result) и shareit.cache.size.
+ * Статистику кэша второго уровня Hibernate публикует hibernate-micrometer (hibernate.second.level.cache.*).
+ */
+@Component
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class CacheMetrics implements MeterBinder {
+    private final ItemSearchCache itemSearchCache;
+    private final UserCache userCache;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "item-search", itemSearchCache, ItemSearchCache::getHitCount, ItemSearchCache::getMissCount,
+                ItemSearchCache::getSize);
+        bind(registry, "users", userCache, UserCache::getHitCount, UserCache::getMissCount, UserCache::getSize);
+    }
+
+    private <T> void bind(MeterRegistry registry, String cache, T source, ToDoubleFunction<T> hits,
+                          ToDoubleFunction<T> misses, ToDoubleFunction<T> size) {
+        FunctionCounter.builder("shareit.cache.gets", source, hits)
+                .description("Обращения к кэшу")
+                .tags("cache", cache, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("shareit.cache.gets", source, misses)
+                .description("Обращения к кэшу")
+                .tags("cache", cache, "result", "miss")
+                .register(registry);
+        Gauge.builder("shareit.cache.size", source, size)
+                .description("Число записей в кэше")
+                .tag("cache", cache)
+                .register(registry);
+    }
+}
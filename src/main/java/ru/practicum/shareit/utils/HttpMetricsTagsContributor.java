@@ -0,0 +1,35 @@
+package ru.practicum.shareit.utils;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Дополнительные теги таймера http.server.requests: state для запросов списков бронирований и result по коду ответа.
+ */
+@Component
+public class HttpMetricsTagsContributor implements WebMvcTagsContributor {
+    private static final String BOOKINGS = "/bookings";
+
+    @Override
+    public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Throwable exception) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        boolean bookingsList = "GET".equals(request.getMethod())
+                && (path.equals(BOOKINGS) || path.equals(BOOKINGS + "/owner"));
+        String state = bookingsList ? MetricTags.state(request.getParameter(MetricTags.STATE)) : MetricTags.NONE;
+        String result = exception != null && response.getStatus() < 400
+                ? MetricTags.result(exception)
+                : MetricTags.result(response.getStatus());
+        return Tags.of(MetricTags.STATE, state, MetricTags.RESULT, result);
+    }
+
+    @Override
+    public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+        return Tags.empty();
+    }
+}
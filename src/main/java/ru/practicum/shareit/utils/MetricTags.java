@@ -0,0 +1,76 @@
+package ru.practicum.shareit.utils;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.error.ConflictException;
+import ru.practicum.shareit.error.NotFoundException;
+import ru.practicum.shareit.error.ValidationException;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Значения тегов метрик: state - состояние бронирований из запроса, result - исход вызова.
+ * Число значений ограничено, чтобы произвольные параметры запроса не порождали новые временные ряды.
+ */
+public final class MetricTags {
+    public static final String STATE = "state";
+    public static final String RESULT = "result";
+    public static final String NONE = "none";
+    public static final String OK = "ok";
+    public static final String VALIDATION = "validation";
+    public static final String NOT_FOUND = "not-found";
+    public static final String CONFLICT = "conflict";
+    public static final String ERROR = "error";
+    private static final String UNKNOWN = "UNKNOWN";
+    private static final Set<String> STATES = Stream.concat(Arrays.stream(Booking.TimeBookingState.values()),
+                    Arrays.stream(Booking.BookingState.values()))
+            .map(Enum::name)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private MetricTags() {
+    }
+
+    /**
+     * Состояние бронирований так, как его разбирает BookingServiceImpl: без параметра - ALL, неизвестное - UNKNOWN.
+     */
+    public static String state(String state) {
+        if (state == null) {
+            return Booking.TimeBookingState.ALL.name();
+        }
+        return STATES.contains(state) ? state : UNKNOWN;
+    }
+
+    public static String result(Throwable throwable) {
+        if (throwable == null) {
+            return OK;
+        }
+        if (throwable instanceof ValidationException) {
+            return VALIDATION;
+        }
+        if (throwable instanceof NotFoundException) {
+            return NOT_FOUND;
+        }
+        if (throwable instanceof ConflictException) {
+            return CONFLICT;
+        }
+        return ERROR;
+    }
+
+    /**
+     * Исход запроса по коду ответа, который ErrorHandler выставляет для исключений приложения.
+     */
+    public static String result(int status) {
+        switch (status) {
+            case 400:
+                return VALIDATION;
+            case 404:
+                return NOT_FOUND;
+            case 409:
+                return CONFLICT;
+            default:
+                return status < 400 ? OK : ERROR;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Карта загруженных объектов в рамках HTTP-запроса, общая для сервисов.
+ * Объект с одним типом и id загружается не больше одного раза за запрос, пока его не удалят через {@link #evict}.
+ * Вне HTTP-запроса (планировщик, прогрев при запуске) объекты не запоминаются.
+ */
+@Component
+public class RequestLookupContext {
+    private static final String ATTRIBUTE = RequestLookupContext.class.getName();
+
+    public <T> T get(Class<T> type, Object id, Supplier<? extends T> loader) {
+        Map<Key, Object> loaded = getLoaded();
+        if (loaded == null) {
+            return loader.get();
+        }
+        Key key = new Key(type, id);
+        Object value = loaded.get(key);
+        if (value == null) {
+            value = loader.get();
+            loaded.put(key, value);
+        }
+        return type.cast(value);
+    }
+
+    public void evict(Class<?> type, Object id) {
+        Map<Key, Object> loaded = getLoaded();
+        if (loaded != null) {
+            loaded.remove(new Key(type, id));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Key, Object> getLoaded() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<Key, Object> loaded = (Map<Key, Object>) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (loaded == null) {
+            loaded = new HashMap<>();
+            attributes.setAttribute(ATTRIBUTE, loaded, RequestAttributes.SCOPE_REQUEST);
+        }
+        return loaded;
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class Key {
+        private final Class<?> type;
+        private final Object id;
+    }
+}
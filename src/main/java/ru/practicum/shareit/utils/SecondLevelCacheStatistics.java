@@ -0,0 +1,60 @@
+package ru.practicum.shareit.utils;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedOperationParameter;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Статистика кэша второго уровня Hibernate по регионам.
+ */
+@Component
+@ManagedResource(objectName = "ru.practicum.shareit:type=SecondLevelCache", description = "Кэш второго уровня Hibernate")
+public class SecondLevelCacheStatistics {
+    private final Statistics statistics;
+
+    @Autowired
+    public SecondLevelCacheStatistics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ManagedAttribute(description = "Регионы кэша")
+    public String[] getRegionNames() {
+        return statistics.getSecondLevelCacheRegionNames();
+    }
+
+    @ManagedOperation(description = "Число попаданий в регион")
+    @ManagedOperationParameter(name = "region", description = "Регион")
+    public long getHitCount(String region) {
+        return getRegionStatistics(region).getHitCount();
+    }
+
+    @ManagedOperation(description = "Число промахов региона")
+    @ManagedOperationParameter(name = "region", description = "Регион")
+    public long getMissCount(String region) {
+        return getRegionStatistics(region).getMissCount();
+    }
+
+    @ManagedOperation(description = "Число записей в регион")
+    @ManagedOperationParameter(name = "region", description = "Регион")
+    public long getPutCount(String region) {
+        return getRegionStatistics(region).getPutCount();
+    }
+
+    @ManagedOperation(description = "Число элементов региона в памяти")
+    @ManagedOperationParameter(name = "region", description = "Регион")
+    public long getElementCount(String region) {
+        return getRegionStatistics(region).getElementCountInMemory();
+    }
+
+    private CacheRegionStatistics getRegionStatistics(String region) {
+        return statistics.getDomainDataRegionStatistics(region);
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.utils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Таймер shareit.service для публичных методов *ServiceImpl: теги class, method, state и result.
+ * state заполняется для методов с параметром state (списки бронирований), для остальных - none.
+ * Перцентили и гистограмма таймера настраиваются свойствами management.metrics.distribution.*.shareit.service.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ServiceMetricsAspect {
+    public static final String TIMER = "shareit.service";
+    private static final int NO_STATE = -1;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, Integer> stateParameters = new ConcurrentHashMap<>();
+
+    @Around("execution(public * ru.practicum.shareit..service.*ServiceImpl.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Throwable failure = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+            int stateIndex = stateParameters.computeIfAbsent(signature.getMethod(),
+                    method -> Arrays.asList(signature.getParameterNames()).indexOf(MetricTags.STATE));
+            String state = stateIndex == NO_STATE ? MetricTags.NONE : MetricTags.state((String) joinPoint.getArgs()[stateIndex]);
+            sample.stop(Timer.builder(TIMER)
+                    .description("Время выполнения методов сервисов")
+                    .tag("class", signature.getDeclaringType().getSimpleName())
+                    .tag("method", signature.getName())
+                    .tag(MetricTags.STATE, state)
+                    .tag(MetricTags.RESULT, MetricTags.result(failure))
+                    .register(meterRegistry));
+        }
+    }
+}
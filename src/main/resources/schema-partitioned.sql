@@ -0,0 +1,38 @@
+-- Секционирование bookings по start_date (только PostgreSQL 12+): bookings_archive - завершённые бронирования,
+-- bookings_hot - остальные. Обе секции разбиты по месяцам на таблицы bookings_pYYYYMM, которые создаёт
+-- BookingArchiver; бронирования за пределами созданных месяцев попадают в bookings_hot_default.
+-- Архивация переносит месячные таблицы из bookings_hot в bookings_archive без переноса строк.
+-- Граница секций хранится в bookings_archive_state.
+DROP TABLE IF EXISTS bookings CASCADE;
+DROP TABLE IF EXISTS bookings_archive_state;
+
+-- Первичный ключ секционированной таблицы обязан включать start_date, поэтому уникальность id
+-- обеспечивается только последовательностью bookings_seq: бронирования с явно заданным id вставлять нельзя.
+CREATE TABLE bookings
+(
+    id INTEGER NOT NULL,
+    start_date TIMESTAMP NOT NULL,
+    end_date TIMESTAMP NOT NULL,
+    item_id INTEGER REFERENCES items (id) ON DELETE CASCADE,
+    booker_id INTEGER REFERENCES users (id) ON DELETE CASCADE,
+    status VARCHAR (30) NOT NULL,
+    CONSTRAINT pk_booking PRIMARY KEY (id, start_date)
+    ) PARTITION BY RANGE (start_date);
+
+CREATE TABLE bookings_archive PARTITION OF bookings
+    FOR VALUES FROM (MINVALUE) TO ('1970-01-01 00:00:00') PARTITION BY RANGE (start_date);
+CREATE TABLE bookings_hot PARTITION OF bookings
+    FOR VALUES FROM ('1970-01-01 00:00:00') TO (MAXVALUE) PARTITION BY RANGE (start_date);
+CREATE TABLE bookings_hot_default PARTITION OF bookings_hot DEFAULT;
+
+CREATE TABLE bookings_archive_state
+(
+    archived_before TIMESTAMP NOT NULL,
+    archived_end_before TIMESTAMP NOT NULL
+    );
+INSERT INTO bookings_archive_state VALUES ('1970-01-01 00:00:00', '1970-01-01 00:00:00');
+
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_end ON bookings (item_id, status, end_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start ON bookings (item_id, start_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_status_end ON bookings (status, end_date);
@@ -3,10 +3,22 @@ DROP TABLE IF EXISTS items CASCADE;
 DROP TABLE IF EXISTS bookings CASCADE;
 DROP TABLE IF EXISTS requests CASCADE;
 DROP TABLE IF EXISTS comments CASCADE;
+DROP SEQUENCE IF EXISTS users_seq;
+DROP SEQUENCE IF EXISTS requests_seq;
+DROP SEQUENCE IF EXISTS items_seq;
+DROP SEQUENCE IF EXISTS bookings_seq;
+DROP SEQUENCE IF EXISTS comments_seq;
+
+-- Шаг последовательностей равен allocationSize сущностей: Hibernate выдаёт id блоками по 50 (оптимизатор pooled).
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users
 (
-    id INTEGER GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id INTEGER NOT NULL,
     name VARCHAR (255) NOT NULL,
     email VARCHAR (512) NOT NULL,
     CONSTRAINT pk_user PRIMARY KEY (id),
@@ -15,7 +27,7 @@ CREATE TABLE IF NOT EXISTS users
 
 CREATE TABLE IF NOT EXISTS requests
 (
-    id INTEGER GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id INTEGER NOT NULL,
     description VARCHAR (512) NOT NULL,
     requestor_id INTEGER REFERENCES users (id) ON DELETE CASCADE,
     created TIMESTAMP NOT NULL,
@@ -24,7 +36,7 @@ CREATE TABLE IF NOT EXISTS requests
 
 CREATE TABLE IF NOT EXISTS items
 (
-    id INTEGER GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id INTEGER NOT NULL,
     name VARCHAR (255) NOT NULL,
     description VARCHAR (512) NOT NULL,
     available BOOLEAN NOT NULL DEFAULT FALSE,
@@ -36,7 +48,7 @@ CREATE TABLE IF NOT EXISTS items
 
 CREATE TABLE IF NOT EXISTS bookings
 (
-    id INTEGER GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id INTEGER NOT NULL,
     start_date TIMESTAMP NOT NULL,
     end_date TIMESTAMP NOT NULL,
     item_id INTEGER REFERENCES items (id) ON DELETE CASCADE,
@@ -48,10 +60,31 @@ CREATE TABLE IF NOT EXISTS bookings
 
 CREATE TABLE IF NOT EXISTS comments
 (
-    id INTEGER GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id INTEGER NOT NULL,
     text VARCHAR (512) NOT NULL,
     item_id INTEGER REFERENCES items (id) ON DELETE CASCADE,
     author_id INTEGER REFERENCES users (id) ON DELETE CASCADE,
     created TIMESTAMP NOT NULL,
     CONSTRAINT pk_comment PRIMARY KEY (id)
-    );
\ No newline at end of file
+    );
+
+-- Индексы под условия и сортировки запросов репозиториев. PostgreSQL не индексирует внешние ключи сам,
+-- поэтому без них выборки по владельцу, автору, товару и запросу читают таблицу целиком.
+CREATE INDEX IF NOT EXISTS ix_requests_requestor_created ON requests (requestor_id, created DESC);
+CREATE INDEX IF NOT EXISTS ix_requests_created ON requests (created DESC);
+
+CREATE INDEX IF NOT EXISTS ix_items_owner_id ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS ix_items_request_id ON items (request_id);
+
+-- Проверка пересечения и последнее бронирование товара: item_id, status и end_date.
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_end ON bookings (item_id, status, end_date);
+-- Следующее бронирование и бронирования товара в порядке начала.
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start ON bookings (item_id, start_date);
+-- Списки бронирований автора в порядке order by start_date desc, id desc.
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+-- Незавершённые подтверждённые бронирования при заполнении индекса интервалов.
+CREATE INDEX IF NOT EXISTS ix_bookings_status_end ON bookings (status, end_date);
+
+CREATE INDEX IF NOT EXISTS ix_comments_item_created ON comments (item_id, created);
+-- Каскадное удаление комментариев пользователя.
+CREATE INDEX IF NOT EXISTS ix_comments_author_id ON comments (author_id);
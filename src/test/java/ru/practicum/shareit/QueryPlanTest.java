@@ -0,0 +1,195 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.repository.BookingFilter;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingArchiver;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.utils.PageCursor;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Проверяет планы запросов репозиториев: каждый сгенерированный Hibernate запрос выполняется через EXPLAIN,
+ * и тест падает, если хотя бы одна таблица читается полным просмотром (tableScan в плане H2).
+ * Полный просмотр ожидаем и не проверяется для поиска по подстроке (search, searchIlike),
+ * выгрузки текстов товаров для индексов (streamItemTexts) и findAll.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "ru.practicum.shareit.QueryPlanTest$SqlRecorder")
+class QueryPlanTest {
+    private static final String TABLE_SCAN = "tableScan";
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    private final LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0);
+    private User owner;
+    private User booker;
+    private Item item;
+    private ItemRequest request;
+
+    @BeforeEach
+    void beforeEach() {
+        owner = entityManager.persist(new User(null, "Harry", "mail@mail.ru"));
+        booker = entityManager.persist(new User(null, "Booker", "booker@mail.ru"));
+        request = entityManager.persist(new ItemRequest(0, "Нужна дрель", booker, now.minusDays(3)));
+        item = entityManager.persist(new Item(null, "Дрель", "Ударная дрель", true, owner, request));
+        entityManager.persist(new Booking(null, now.minusDays(2), now.minusDays(1), item, booker, Booking.BookingState.APPROVED));
+        entityManager.persist(new Booking(null, now.plusDays(1), now.plusDays(2), item, booker, Booking.BookingState.WAITING));
+        entityManager.persist(new Comment(null, "Отличная дрель", item, booker, now.minusHours(1)));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void repositoryQueriesUseIndexes() {
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("ItemRepository.findById", () -> itemRepository.findById(item.getId()));
+        queries.put("ItemRepository.findItemForUpdate", () -> itemRepository.findItemForUpdate(item.getId()));
+        queries.put("ItemRepository.findAllByOwner_IdIs", () -> itemRepository.findAllByOwner_IdIs(owner.getId(),
+                PageRequest.of(0, 10, Sort.by("id").ascending())));
+        queries.put("ItemRepository.findAllByRequest_IdIs", () -> itemRepository.findAllByRequest_IdIs(request.getId()));
+        queries.put("ItemRepository.findAllByRequest_IdIn", () -> itemRepository.findAllByRequest_IdIn(List.of(request.getId(), -1)));
+        queries.put("ItemRepository.findItemAvailability", () -> itemRepository.findItemAvailability(item.getId()));
+        queries.put("ItemRepository.findAllByIdIn", () -> itemRepository.findAllByIdIn(List.of(item.getId(), -1)));
+        queries.put("BookingRepository.findById", () -> bookingRepository.findById(1));
+        queries.put("BookingRepository.existsOverlappingBooking",
+                () -> bookingRepository.existsOverlappingBooking(item.getId(),
+                        Booking.BookingState.APPROVED, now.plusDays(1), now, BookingArchiver.NO_ARCHIVE));
+        queries.put("BookingRepository.streamBookingIntervals", () -> {
+            try (Stream<?> intervals = bookingRepository.streamBookingIntervals(Booking.BookingState.APPROVED, now)) {
+                intervals.forEach(interval -> { });
+            }
+        });
+        queries.put("BookingRepository.findBookingsByItem_IdAndItem_Owner_IdIsOrderByStart",
+                () -> bookingRepository.findBookingsByItem_IdAndItem_Owner_IdIsOrderByStart(item.getId(), owner.getId()));
+        queries.put("BookingRepository.findLastAndNextBookings",
+                () -> bookingRepository.findLastAndNextBookings(List.of(item.getId(), -1), now));
+        queries.put("BookingRepository.findItemsBookingsChanges",
+                () -> bookingRepository.findItemsBookingsChanges(List.of(item.getId(), -1), now, BookingArchiver.NO_ARCHIVE));
+        for (BookingFilter filter : getBookingFilters()) {
+            queries.put("BookingRepository.findBookings " + filter,
+                    () -> bookingRepository.findBookings(filter, PageRequest.of(0, 10)));
+        }
+        queries.put("CommentRepository.findCommentByItem_IdIsOrderByCreated",
+                () -> commentRepository.findCommentByItem_IdIsOrderByCreated(item.getId()));
+        queries.put("CommentRepository.findCommentByItem_IdInOrderByCreated",
+                () -> commentRepository.findCommentByItem_IdInOrderByCreated(List.of(item.getId(), -1)));
+        queries.put("ItemRequestRepository.findItemRequestByRequestorOrderByCreatedDesc",
+                () -> itemRequestRepository.findItemRequestByRequestorOrderByCreatedDesc(booker));
+        queries.put("ItemRequestRepository.findItemRequestByRequestor_IdIsNotOrderByCreatedDesc",
+                () -> itemRequestRepository.findItemRequestByRequestor_IdIsNotOrderByCreatedDesc(owner.getId(),
+                        PageRequest.of(0, 10)));
+
+        List<String> tableScans = new ArrayList<>();
+        for (Map.Entry<String, Runnable> query : queries.entrySet()) {
+            entityManager.clear();
+            SqlRecorder.STATEMENTS.clear();
+            query.getValue().run();
+            List<String> statements = new ArrayList<>(SqlRecorder.STATEMENTS);
+            assertThat(query.getKey(), statements, not(empty()));
+            for (String sql : statements) {
+                String plan = explain(sql);
+                if (plan.contains(TABLE_SCAN)) {
+                    tableScans.add(query.getKey() + ":\n" + plan);
+                }
+            }
+        }
+        assertThat(String.join("\n\n", tableScans), tableScans, empty());
+    }
+
+    private List<BookingFilter> getBookingFilters() {
+        List<BookingFilter> filters = new ArrayList<>();
+        for (BookingFilter.Role role : BookingFilter.Role.values()) {
+            Integer userId = role == BookingFilter.Role.BOOKER ? booker.getId() : owner.getId();
+            for (Booking.TimeBookingState timeState : Booking.TimeBookingState.values()) {
+                for (PageCursor cursor : new PageCursor[]{null, new PageCursor(now, Integer.MAX_VALUE)}) {
+                    filters.add(BookingFilter.builder()
+                            .role(role)
+                            .userId(userId)
+                            .timeState(timeState)
+                            .now(now)
+                            .cursor(cursor)
+                            .hotFrom(timeState == Booking.TimeBookingState.CURRENT ? BookingArchiver.NO_ARCHIVE : null)
+                            .build());
+                }
+            }
+            filters.add(BookingFilter.builder()
+                    .role(role)
+                    .userId(userId)
+                    .status(Booking.BookingState.WAITING)
+                    .now(now)
+                    .build());
+        }
+        return filters;
+    }
+
+    /**
+     * План H2 не зависит от значений параметров, поэтому все параметры запроса заполняются null.
+     */
+    private String explain(String sql) {
+        return jdbcTemplate.query("EXPLAIN " + sql, statement -> {
+            int count = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= count; i++) {
+                statement.setNull(i, Types.NULL);
+            }
+        }, resultSet -> {
+            StringBuilder plan = new StringBuilder();
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1));
+            }
+            return plan.toString();
+        });
+    }
+
+    /**
+     * Запоминает запросы на чтение, которые Hibernate отправляет в базу данных.
+     */
+    public static class SqlRecorder implements StatementInspector {
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.trim().toLowerCase(Locale.ROOT).startsWith("select")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingExtendedDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.error.NotFoundException;
 import ru.practicum.shareit.error.ValidationException;
@@ -25,6 +26,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -66,8 +68,8 @@ class BookingControllerTest {
 
     @Test
     void getBookings() throws Exception {
-        when(bookingService.getBookings(anyInt(), anyString(), anyInt(), anyInt()))
-                .thenReturn(List.of(bookingExtendedDto));
+        when(bookingService.getBookingsPage(anyInt(), anyString(), anyInt(), anyInt(), isNull()))
+                .thenReturn(new BookingPageDto(List.of(bookingExtendedDto), null));
 
         mvc.perform(get("/bookings")
                 .header("X-Sharer-User-Id", 1)
@@ -84,9 +86,24 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].booker", notNullValue()));
     }
 
+    @Test
+    void getBookingsWithCursor() throws Exception {
+        when(bookingService.getBookingsPage(anyInt(), isNull(), isNull(), anyInt(), eq("cursor")))
+                .thenReturn(new BookingPageDto(List.of(bookingExtendedDto), "next"));
+
+        mvc.perform(get("/bookings")
+                .header("X-Sharer-User-Id", 1)
+                .param("cursor", "cursor")
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(bookingExtendedDto.getId()), Integer.class));
+    }
+
     @Test
     void getBookingsWithValidationException() throws Exception {
-        when(bookingService.getBookings(anyInt(), anyString(), anyInt(), anyInt()))
+        when(bookingService.getBookingsPage(anyInt(), anyString(), anyInt(), anyInt(), isNull()))
                 .thenThrow(ValidationException.class);
 
         mvc.perform(get("/bookings")
@@ -99,8 +116,8 @@ class BookingControllerTest {
 
     @Test
     void getOwnerBookings() throws Exception {
-        when(bookingService.getOwnersBookings(anyInt(), anyString(), anyInt(), anyInt()))
-                .thenReturn(List.of(bookingExtendedDto));
+        when(bookingService.getOwnersBookingsPage(anyInt(), anyString(), anyInt(), anyInt(), isNull()))
+                .thenReturn(new BookingPageDto(List.of(bookingExtendedDto), null));
 
         mvc.perform(get("/bookings/owner")
                 .header("X-Sharer-User-Id", 1)
@@ -117,9 +134,23 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].booker", notNullValue()));
     }
 
+    @Test
+    void getOwnerBookingsWithCursor() throws Exception {
+        when(bookingService.getOwnersBookingsPage(anyInt(), isNull(), isNull(), anyInt(), eq("cursor")))
+                .thenReturn(new BookingPageDto(List.of(bookingExtendedDto), null));
+
+        mvc.perform(get("/bookings/owner")
+                .header("X-Sharer-User-Id", 1)
+                .param("cursor", "cursor")
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
     @Test
     void getOwnerBookingsWithValidationException() throws Exception {
-        when(bookingService.getOwnersBookings(anyInt(), anyString(), anyInt(), anyInt()))
+        when(bookingService.getOwnersBookingsPage(anyInt(), anyString(), anyInt(), anyInt(), isNull()))
                 .thenThrow(ValidationException.class);
 
         mvc.perform(get("/bookings/owner")
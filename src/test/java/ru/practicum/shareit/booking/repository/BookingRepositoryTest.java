@@ -0,0 +1,116 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.utils.PageCursor;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@DataJpaTest
+class BookingRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    User owner = new User(null, "Harry", "mail@mail.ru");
+    User booker = new User(null, "Booker", "booker@mail.ru");
+    LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0);
+    Booking past;
+    Booking current;
+    Booking future;
+
+    @BeforeEach
+    void beforeEach() {
+        entityManager.persist(owner);
+        entityManager.persist(booker);
+        Item item = new Item(null, "Item1", "Description1", true, owner, null);
+        entityManager.persist(item);
+        past = entityManager.persist(new Booking(null, now.minusDays(2), now.minusDays(1), item, booker, Booking.BookingState.APPROVED));
+        current = entityManager.persist(new Booking(null, now.minusHours(1), now.plusHours(1), item, booker, Booking.BookingState.WAITING));
+        future = entityManager.persist(new Booking(null, now.plusDays(1), now.plusDays(2), item, booker, Booking.BookingState.REJECTED));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Slice<Booking> findBookings(BookingFilter.BookingFilterBuilder filter, int size) {
+        return bookingRepository.findBookings(filter.now(now).build(), PageRequest.of(0, size));
+    }
+
+    @Test
+    void findBookingsByBookerWithAllState() {
+        Slice<Booking> bookings = findBookings(BookingFilter.builder()
+                .role(BookingFilter.Role.BOOKER)
+                .userId(booker.getId())
+                .timeState(Booking.TimeBookingState.ALL), 10);
+        assertThat(bookings.map(Booking::getId).toList(), contains(future.getId(), current.getId(), past.getId()));
+        assertThat(bookings.hasNext(), is(false));
+    }
+
+    @Test
+    void findBookingsByOwnerWithTimeStates() {
+        BookingFilter.BookingFilterBuilder filter = BookingFilter.builder()
+                .role(BookingFilter.Role.OWNER)
+                .userId(owner.getId());
+        assertThat(findBookings(filter.timeState(Booking.TimeBookingState.PAST), 10).map(Booking::getId).toList(), contains(past.getId()));
+        assertThat(findBookings(filter.timeState(Booking.TimeBookingState.CURRENT), 10).map(Booking::getId).toList(), contains(current.getId()));
+        assertThat(findBookings(filter.timeState(Booking.TimeBookingState.FUTURE), 10).map(Booking::getId).toList(), contains(future.getId()));
+    }
+
+    @Test
+    void findCurrentBookingsFromHotPartition() {
+        BookingFilter.BookingFilterBuilder filter = BookingFilter.builder()
+                .role(BookingFilter.Role.BOOKER)
+                .userId(booker.getId())
+                .timeState(Booking.TimeBookingState.CURRENT);
+        assertThat(findBookings(filter.hotFrom(now.minusDays(1)), 10).map(Booking::getId).toList(), contains(current.getId()));
+        assertThat(findBookings(filter.hotFrom(now.minusMinutes(1)), 10).toList(), empty());
+    }
+
+    @Test
+    void findBookingsByStatus() {
+        Slice<Booking> bookings = findBookings(BookingFilter.builder()
+                .role(BookingFilter.Role.BOOKER)
+                .userId(booker.getId())
+                .status(Booking.BookingState.WAITING), 10);
+        assertThat(bookings.map(Booking::getId).toList(), contains(current.getId()));
+    }
+
+    @Test
+    void findBookingsOfOtherUser() {
+        Slice<Booking> bookings = findBookings(BookingFilter.builder()
+                .role(BookingFilter.Role.OWNER)
+                .userId(booker.getId())
+                .timeState(Booking.TimeBookingState.ALL), 10);
+        assertThat(bookings.toList(), empty());
+    }
+
+    @Test
+    void findBookingsWithCursor() {
+        BookingFilter.BookingFilterBuilder filter = BookingFilter.builder()
+                .role(BookingFilter.Role.BOOKER)
+                .userId(booker.getId())
+                .timeState(Booking.TimeBookingState.ALL);
+        Slice<Booking> first = findBookings(filter, 2);
+        assertThat(first.map(Booking::getId).toList(), contains(future.getId(), current.getId()));
+        assertThat(first.hasNext(), is(true));
+
+        Booking last = first.getContent().get(1);
+        Slice<Booking> second = findBookings(filter.cursor(new PageCursor(last.getStart(), last.getId())), 2);
+        assertThat(second.map(Booking::getId).toList(), contains(past.getId()));
+        assertThat(second.hasNext(), is(false));
+    }
+}
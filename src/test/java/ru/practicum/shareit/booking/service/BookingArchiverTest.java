@@ -0,0 +1,97 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingArchiverTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void hotFromWithoutArchive() {
+        BookingArchiver archiver = new BookingArchiver(jdbcTemplate, false, Duration.ofDays(180));
+        archiver.archive();
+
+        Assertions.assertEquals(BookingArchiver.NO_ARCHIVE, archiver.hotFrom(LocalDateTime.now()));
+        Mockito.verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void archiveMonthsBeforeEarliestOpenBooking() {
+        BookingArchiver archiver = new BookingArchiver(jdbcTemplate, true, Duration.ofDays(180));
+        LocalDateTime earliestOpen = LocalDateTime.now().minusDays(400);
+        YearMonth firstHotMonth = YearMonth.from(earliestOpen);
+        String closedMonth = "bookings_p" + firstHotMonth.minusMonths(1).format(DateTimeFormatter.ofPattern("yyyyMM"));
+        String openMonth = "bookings_p" + firstHotMonth.format(DateTimeFormatter.ofPattern("yyyyMM"));
+        Mockito.lenient().when(jdbcTemplate.queryForList(contains("pg_inherits"), eq(String.class), eq("bookings_hot")))
+                .thenReturn(List.of("bookings_hot_default", closedMonth, openMonth));
+        Mockito.when(jdbcTemplate.queryForObject(startsWith("select min(start_date)"), eq(Timestamp.class), any(), any(), any()))
+                .thenReturn(Timestamp.valueOf(earliestOpen));
+
+        archiver.archive();
+
+        InOrder inOrder = Mockito.inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE bookings DETACH PARTITION bookings_archive");
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE bookings_hot DETACH PARTITION " + closedMonth);
+        inOrder.verify(jdbcTemplate).execute(startsWith("ALTER TABLE bookings_archive ATTACH PARTITION " + closedMonth));
+        inOrder.verify(jdbcTemplate).execute(startsWith("ALTER TABLE bookings ATTACH PARTITION bookings_hot"));
+        Mockito.verify(jdbcTemplate, Mockito.never()).execute("ALTER TABLE bookings_hot DETACH PARTITION " + openMonth);
+        Mockito.verify(jdbcTemplate, Mockito.never()).update(startsWith("WITH moved AS (DELETE FROM bookings_hot "), any(), any());
+        LocalDateTime archivedBefore = firstHotMonth.atDay(1).atStartOfDay();
+        Assertions.assertEquals(archivedBefore, archiver.hotFrom(LocalDateTime.now()));
+        Assertions.assertEquals(BookingArchiver.NO_ARCHIVE, archiver.hotFrom(LocalDateTime.now().minusDays(200)));
+    }
+
+    @Test
+    void createMonthsAhead() {
+        BookingArchiver archiver = new BookingArchiver(jdbcTemplate, true, Duration.ofDays(180));
+        YearMonth farMonth = YearMonth.now().plusMonths(BookingArchiver.MONTHS_AHEAD + 2);
+        Mockito.when(jdbcTemplate.queryForObject(startsWith("select min(start_date)"), eq(Timestamp.class), any(), any(), any()))
+                .thenReturn(Timestamp.valueOf(BookingArchiver.NO_ARCHIVE));
+        Mockito.when(jdbcTemplate.queryForList(startsWith("select distinct date_trunc"), eq(Timestamp.class), any()))
+                .thenReturn(List.of(Timestamp.valueOf(farMonth.minusMonths(3).atDay(1).atStartOfDay())));
+
+        archiver.archive();
+
+        Mockito.verify(jdbcTemplate, Mockito.times(BookingArchiver.MONTHS_AHEAD))
+                .execute(startsWith("CREATE TABLE bookings_p"));
+        Mockito.verify(jdbcTemplate).update(startsWith("WITH moved AS (DELETE FROM bookings_hot_default"),
+                eq(Timestamp.valueOf(YearMonth.now().atDay(1).atStartOfDay())), any());
+        Mockito.verify(jdbcTemplate, Mockito.never())
+                .execute(startsWith("CREATE TABLE bookings_p" + farMonth.format(DateTimeFormatter.ofPattern("yyyyMM"))));
+    }
+
+    @Test
+    void archiveNothingWhenBoundaryDoesNotMove() {
+        BookingArchiver archiver = new BookingArchiver(jdbcTemplate, true, Duration.ofDays(180));
+        Mockito.when(jdbcTemplate.queryForObject(startsWith("select min(start_date)"), eq(Timestamp.class), any(), any(), any()))
+                .thenReturn(Timestamp.valueOf(BookingArchiver.NO_ARCHIVE));
+
+        archiver.archive();
+
+        Mockito.verify(jdbcTemplate, Mockito.never()).execute(contains("DETACH"));
+        Assertions.assertEquals(BookingArchiver.NO_ARCHIVE, archiver.hotFrom(LocalDateTime.now()));
+    }
+
+    @Test
+    void rejectTooShortThreshold() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new BookingArchiver(jdbcTemplate, true, Duration.ofHours(1)));
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+    @Mock
+    private BookingRepository bookingRepository;
+    private BookingIntervalIndex bookingIntervalIndex;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        bookingIntervalIndex = new BookingIntervalIndex(bookingRepository);
+        start = LocalDateTime.now().plusDays(1);
+    }
+
+    private BookingIntervalView interval(Integer itemId, LocalDateTime start, LocalDateTime end) {
+        return new BookingIntervalView() {
+            @Override
+            public Integer getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end;
+            }
+        };
+    }
+
+    @Test
+    void warmUp() {
+        Mockito.when(bookingRepository.streamBookingIntervals(eq(Booking.BookingState.APPROVED), any()))
+                .thenReturn(Stream.of(interval(1, start, start.plusHours(1)), interval(2, start.plusHours(2), start.plusHours(3))));
+        bookingIntervalIndex.warmUp();
+
+        Assertions.assertTrue(bookingIntervalIndex.overlaps(1, start, start.plusHours(1)));
+        Assertions.assertFalse(bookingIntervalIndex.overlaps(2, start, start.plusHours(1)));
+        Assertions.assertTrue(bookingIntervalIndex.overlaps(2, start, start.plusHours(3)));
+    }
+
+    @Test
+    void overlapsWithEmptyIndex() {
+        Assertions.assertFalse(bookingIntervalIndex.overlaps(1, start, start.plusHours(1)));
+    }
+
+    @Test
+    void overlaps() {
+        bookingIntervalIndex.add(1, start, start.plusHours(2));
+
+        Assertions.assertTrue(bookingIntervalIndex.overlaps(1, start.minusHours(1), start.plusHours(1)));
+        Assertions.assertTrue(bookingIntervalIndex.overlaps(1, start.plusHours(1), start.plusHours(3)));
+        Assertions.assertTrue(bookingIntervalIndex.overlaps(1, start.minusHours(1), start.plusHours(3)));
+        Assertions.assertFalse(bookingIntervalIndex.overlaps(1, start.minusHours(1), start));
+        Assertions.assertFalse(bookingIntervalIndex.overlaps(1, start.plusHours(2), start.plusHours(3)));
+        Assertions.assertFalse(bookingIntervalIndex.overlaps(2, start, start.plusHours(2)));
+    }
+
+    @Test
+    void overlapsWithMergedSegments() {
+        bookingIntervalIndex.add(1, start, start.plusHours(2));
+        bookingIntervalIndex.add(1, start.plusHours(4), start.plusHours(6));
+        bookingIntervalIndex.add(1, start.plusHours(1), start.plusHours(5));
+
+        Assertions.assertTrue(bookingIntervalIndex.overlaps(1, start.plusHours(3), start.plusMinutes(210)));
+        Assertions.assertFalse(bookingIntervalIndex.overlaps(1, start.plusHours(6), start.plusHours(7)));
+    }
+
+    @Test
+    void overlapsBetweenSegments() {
+        bookingIntervalIndex.add(1, start, start.plusHours(1));
+        bookingIntervalIndex.add(1, start.plusHours(3), start.plusHours(4));
+
+        Assertions.assertFalse(bookingIntervalIndex.overlaps(1, start.plusHours(1), start.plusHours(3)));
+        Assertions.assertTrue(bookingIntervalIndex.overlaps(1, start.plusHours(2), start.plusMinutes(190)));
+    }
+}
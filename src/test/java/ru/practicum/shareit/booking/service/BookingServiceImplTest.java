@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,20 +10,26 @@ import org.springframework.boot.test.context.SpringBootTest;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingExtendedDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
-import ru.practicum.shareit.item.dto.ItemExtendedDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 
 @Transactional
 @SpringBootTest
@@ -31,8 +39,10 @@ class BookingServiceImplTest {
     private final BookingService bookingService;
     private final UserService userService;
     private final ItemService itemService;
+    private final ItemRequestService itemRequestService;
     private UserDto itemOwner;
     private ItemDto itemDto;
+    private ItemAvailabilityDto itemAvailabilityDto;
     private BookingExtendedDto bookingExtendedDto;
 
     @BeforeEach
@@ -44,16 +54,13 @@ class BookingServiceImplTest {
                 "Description",
                 true, itemOwner.getId(), null), null, itemOwner.getId());
 
-        ItemExtendedDto itemExtendedDto = new ItemExtendedDto(itemDto.getId(),
-                itemDto.getName(),
-                itemDto.getDescription(),
-                true, itemOwner.getId(), null, null, null, List.of());
+        itemAvailabilityDto = new ItemAvailabilityDto(itemDto.getId(), true, itemOwner.getId());
         bookingExtendedDto = bookingService.createBooking(new BookingCreateDto(null,
                 LocalDateTime.now(),
                 LocalDateTime.now().plusHours(1),
                 itemDto.getId(),
                 bookerOwner.getId(),
-                Booking.BookingState.WAITING.name()), itemExtendedDto, bookerOwner.getId());
+                Booking.BookingState.WAITING.name()), itemAvailabilityDto, bookerOwner.getId());
     }
 
     @Test
@@ -99,6 +106,65 @@ class BookingServiceImplTest {
         assertThat(returned.get(0).getId(), equalTo(booking.get(0).getId()));
     }
 
+    @Test
+    void getBookingsPageWithCursor() {
+        Integer bookerId = bookingExtendedDto.getBooker().getId();
+        for (int i = 1; i <= 2; i++) {
+            bookingService.createBooking(new BookingCreateDto(null,
+                    LocalDateTime.now().plusDays(i),
+                    LocalDateTime.now().plusDays(i).plusHours(1),
+                    itemDto.getId(),
+                    bookerId,
+                    Booking.BookingState.WAITING.name()), itemAvailabilityDto, bookerId);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        List<Booking> bookings = entityManager.createQuery("Select b from Booking b where b.booker.id = :id order by b.start desc, b.id desc", Booking.class)
+                .setParameter("id", bookerId)
+                .getResultList();
+
+        BookingPageDto first = bookingService.getBookingsPage(bookerId, null, 0, 2, null);
+        assertThat(first.getBookings().size(), equalTo(2));
+        assertThat(first.getBookings().get(0).getId(), equalTo(bookings.get(0).getId()));
+        assertThat(first.getNextCursor(), notNullValue());
+
+        BookingPageDto second = bookingService.getBookingsPage(bookerId, null, null, 2, first.getNextCursor());
+        assertThat(second.getBookings().size(), equalTo(1));
+        assertThat(second.getBookings().get(0).getId(), equalTo(bookings.get(2).getId()));
+        assertThat(second.getNextCursor(), nullValue());
+    }
+
+    @Test
+    void getBookingsWithCurrentStateIsBounded() {
+        Integer bookerId = bookingExtendedDto.getBooker().getId();
+        List<Integer> createdIds = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            createdIds.add(bookingService.createBooking(new BookingCreateDto(null,
+                    LocalDateTime.now().minusMinutes(i),
+                    LocalDateTime.now().plusHours(i),
+                    itemDto.getId(),
+                    bookerId,
+                    Booking.BookingState.WAITING.name()), itemAvailabilityDto, bookerId).getId());
+        }
+        Long current = entityManager.createQuery("Select count(b) from Booking b where b.booker.id = :id " +
+                        "and b.start < :now and b.end > :now", Long.class)
+                .setParameter("id", bookerId)
+                .setParameter("now", LocalDateTime.now())
+                .getSingleResult();
+
+        List<BookingExtendedDto> returned = bookingService.getBookings(bookerId, Booking.TimeBookingState.CURRENT.name(), 0, 2);
+        List<BookingExtendedDto> returnedByOwner = bookingService.getOwnersBookings(itemOwner.getId(), Booking.TimeBookingState.CURRENT.name(), 0, 2);
+        List<BookingExtendedDto> secondPage = bookingService.getBookings(bookerId, Booking.TimeBookingState.CURRENT.name(), 2, 2);
+
+        assertThat(current, equalTo(5L));
+        assertThat(returned.stream().map(BookingExtendedDto::getId).collect(Collectors.toList()),
+                equalTo(List.of(bookingExtendedDto.getId(), createdIds.get(0))));
+        assertThat(returnedByOwner.stream().map(BookingExtendedDto::getId).collect(Collectors.toList()),
+                equalTo(List.of(bookingExtendedDto.getId(), createdIds.get(0))));
+        assertThat(secondPage.stream().map(BookingExtendedDto::getId).collect(Collectors.toList()),
+                equalTo(List.of(createdIds.get(1), createdIds.get(2))));
+    }
+
     @Test
     void getBookingsWithEmptyResult() {
         List<BookingExtendedDto> returnedApproved = bookingService.getBookings(bookingExtendedDto.getBooker().getId(), Booking.BookingState.APPROVED.name(), null, null);
@@ -142,4 +208,38 @@ class BookingServiceImplTest {
         assertThat(returned.size(), equalTo(bookings.size()));
         assertThat(returned.get(0).getId(), equalTo(bookings.get(0).getId()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getBookingsWithoutNPlusOneSelects() {
+        for (int i = 1; i <= 3; i++) {
+            UserDto booker = userService.createUser(new UserDto(null, "Booker" + i, "booker" + i + "@mail.ru"));
+            ItemRequestDto request = itemRequestService.createItemRequest(new ItemRequestDto(null,
+                    "Request" + i, booker.getId(), LocalDateTime.now(), List.of()), booker.getId());
+            ItemDto item = itemService.createItem(new ItemDto(null,
+                    "Item" + i,
+                    "Description" + i,
+                    true, itemOwner.getId(), request.getId()), request, itemOwner.getId());
+            bookingService.createBooking(new BookingCreateDto(null,
+                    LocalDateTime.now().plusDays(i),
+                    LocalDateTime.now().plusDays(i).plusHours(1),
+                    item.getId(),
+                    booker.getId(),
+                    Booking.BookingState.WAITING.name()), new ItemAvailabilityDto(item.getId(), true, itemOwner.getId()), booker.getId());
+        }
+        Integer bookerId = bookingExtendedDto.getBooker().getId();
+
+        assertThat(countStatements(() -> bookingService.getOwnersBookings(itemOwner.getId(), null, null, null)), equalTo(1L));
+        assertThat(countStatements(() -> bookingService.getBookings(bookerId, null, 0, 10)), equalTo(1L));
+        assertThat(countStatements(() -> bookingService.getBooking(bookingExtendedDto.getId(), bookerId)), equalTo(1L));
+        assertThat(countStatements(() -> bookingService.getBookingsByItem(itemDto.getId(), itemOwner.getId())), equalTo(1L));
+    }
+
+    private long countStatements(Runnable call) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
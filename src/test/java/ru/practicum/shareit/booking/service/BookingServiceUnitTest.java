@@ -9,26 +9,40 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingExtendedDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.dto.ItemBookingsDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.repository.BookingFilter;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.error.NotFoundException;
 import ru.practicum.shareit.error.ValidationException;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.PageCursor;
+import ru.practicum.shareit.utils.RequestLookupContext;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 
 @ExtendWith(MockitoExtension.class)
 class BookingServiceUnitTest {
@@ -36,6 +50,9 @@ class BookingServiceUnitTest {
     private BookingRepository bookingRepository;
     @Mock
     private UserService userService;
+    @Mock
+    private ItemRepository itemRepository;
+    private BookingIntervalIndex bookingIntervalIndex;
     private BookingService bookingService;
     private UserDto userDto;
     private Booking booking;
@@ -57,20 +74,31 @@ class BookingServiceUnitTest {
                 1,
                 2, Booking.BookingState.WAITING.name());
         bookingExtendedDto = BookingMapper.toBookingExtendedDto(booking);
-        bookingService = new BookingServiceImpl(bookingRepository, userService);
+        bookingIntervalIndex = new BookingIntervalIndex(bookingRepository);
+        bookingService = new BookingServiceImpl(bookingRepository, userService, itemRepository, bookingIntervalIndex,
+                new ItemBookingsSummary(100), new RequestLookupContext(), new BookingArchiver(null, false, Duration.ofDays(180)));
     }
 
     private BookingExtendedDto createBookingDto() {
         Mockito.when(userService.getUser(Mockito.any()))
                 .thenReturn(userDto);
-        Mockito.when(bookingRepository.findBookingsByItem_IdIsAndStatusIsAndEndIsAfter(anyInt(), any(), any()))
-                .thenReturn(List.of());
+        Mockito.when(itemRepository.findItemForUpdate(anyInt()))
+                .thenReturn(java.util.Optional.of(booking.getItem()));
         Mockito.when(bookingRepository.save(any()))
                 .thenReturn(booking);
-        return bookingService.createBooking(bookingCreatedDto, ItemMapper.toItemExtendedDto(booking.getItem(), null, null, List.of()), 2);
+        return bookingService.createBooking(bookingCreatedDto, ItemMapper.toItemAvailabilityDto(booking.getItem()), 2);
     }
 
 
+    private void verifyFilter(BookingFilter.Role role, Booking.TimeBookingState timeState, Booking.BookingState status) {
+        Mockito.verify(bookingRepository).findBookings(
+                Mockito.argThat(filter -> filter.getRole() == role
+                        && filter.getUserId().equals(userDto.getId())
+                        && filter.getTimeState() == timeState
+                        && filter.getStatus() == status),
+                any());
+    }
+
     @Test
     void createBooking() {
         BookingExtendedDto bookingExtendedDto = createBookingDto();
@@ -84,7 +112,7 @@ class BookingServiceUnitTest {
                 .thenReturn(userDto);
         bookingCreatedDto.setStart(null);
 
-        ValidationException ex = assertThrows(ValidationException.class, () -> bookingService.createBooking(bookingCreatedDto, ItemMapper.toItemExtendedDto(booking.getItem(), null, null, List.of()), 2));
+        ValidationException ex = assertThrows(ValidationException.class, () -> bookingService.createBooking(bookingCreatedDto, ItemMapper.toItemAvailabilityDto(booking.getItem()), 2));
         Assertions.assertEquals("Заполните дату начала бронирования.", ex.getMessage());
     }
 
@@ -94,7 +122,7 @@ class BookingServiceUnitTest {
                 .thenReturn(userDto);
         bookingCreatedDto.setEnd(null);
 
-        ValidationException ex = assertThrows(ValidationException.class, () -> bookingService.createBooking(bookingCreatedDto, ItemMapper.toItemExtendedDto(booking.getItem(), null, null, List.of()), 2));
+        ValidationException ex = assertThrows(ValidationException.class, () -> bookingService.createBooking(bookingCreatedDto, ItemMapper.toItemAvailabilityDto(booking.getItem()), 2));
         Assertions.assertEquals("Заполните дату окончания бронирования.", ex.getMessage());
     }
 
@@ -104,7 +132,7 @@ class BookingServiceUnitTest {
                 .thenReturn(userDto);
         bookingCreatedDto.setStart(LocalDateTime.now().minusDays(1));
 
-        ValidationException ex = assertThrows(ValidationException.class, () -> bookingService.createBooking(bookingCreatedDto, ItemMapper.toItemExtendedDto(booking.getItem(), null, null, List.of()), 2));
+        ValidationException ex = assertThrows(ValidationException.class, () -> bookingService.createBooking(bookingCreatedDto, ItemMapper.toItemAvailabilityDto(booking.getItem()), 2));
         Assertions.assertEquals("Некорректная дата начала бронирования.", ex.getMessage());
     }
 
@@ -114,7 +142,7 @@ class BookingServiceUnitTest {
                 .thenReturn(userDto);
         bookingCreatedDto.setEnd(LocalDateTime.now().minusDays(1));
 
-        ValidationException ex = assertThrows(ValidationException.class, () -> bookingService.createBooking(bookingCreatedDto, ItemMapper.toItemExtendedDto(booking.getItem(), null, null, List.of()), 2));
+        ValidationException ex = assertThrows(ValidationException.class, () -> bookingService.createBooking(bookingCreatedDto, ItemMapper.toItemAvailabilityDto(booking.getItem()), 2));
         Assertions.assertEquals("Некорректная дата окончания бронирования.", ex.getMessage());
     }
 
@@ -122,14 +150,14 @@ class BookingServiceUnitTest {
     void createBookingWithNotAvailableItem() {
         booking.getItem().setAvailable(false);
 
-        ValidationException ex = assertThrows(ValidationException.class, () -> bookingService.createBooking(bookingCreatedDto, ItemMapper.toItemExtendedDto(booking.getItem(), null, null, List.of()), 2));
+        ValidationException ex = assertThrows(ValidationException.class, () -> bookingService.createBooking(bookingCreatedDto, ItemMapper.toItemAvailabilityDto(booking.getItem()), 2));
         Assertions.assertEquals("Товар с id " + booking.getItem().getId() + " не доступен до бронирования", ex.getMessage());
     }
 
     @Test
     void createBookingByItemOwner() {
         bookingCreatedDto.setBooker(booking.getItem().getOwner().getId());
-        NotFoundException ex = assertThrows(NotFoundException.class, () -> bookingService.createBooking(bookingCreatedDto, ItemMapper.toItemExtendedDto(booking.getItem(), null, null, List.of()), bookingCreatedDto.getBooker()));
+        NotFoundException ex = assertThrows(NotFoundException.class, () -> bookingService.createBooking(bookingCreatedDto, ItemMapper.toItemAvailabilityDto(booking.getItem()), bookingCreatedDto.getBooker()));
         Assertions.assertEquals("Товар с id " + bookingCreatedDto.getItemId() + " не может быть заброванирован владельцем", ex.getMessage());
     }
 
@@ -137,12 +165,24 @@ class BookingServiceUnitTest {
     void createBookingBusyItem() {
         Mockito.when(userService.getUser(Mockito.any()))
                 .thenReturn(userDto);
-        Mockito.when(bookingRepository.findBookingsByItem_IdIsAndStatusIsAndEndIsAfter(anyInt(), any(), any()))
-                .thenReturn(List.of(booking));
-        NotFoundException ex = assertThrows(NotFoundException.class, () -> bookingService.createBooking(bookingCreatedDto, ItemMapper.toItemExtendedDto(booking.getItem(), null, null, List.of()), 2));
+        Mockito.when(itemRepository.findItemForUpdate(anyInt()))
+                .thenReturn(java.util.Optional.of(booking.getItem()));
+        bookingIntervalIndex.add(booking.getItem().getId(), bookingCreatedDto.getStart().minusHours(1), bookingCreatedDto.getEnd());
+        Mockito.when(bookingRepository.existsOverlappingBooking(anyInt(), any(), any(), any(), any()))
+                .thenReturn(true);
+        NotFoundException ex = assertThrows(NotFoundException.class, () -> bookingService.createBooking(bookingCreatedDto, ItemMapper.toItemAvailabilityDto(booking.getItem()), 2));
         Assertions.assertEquals("Недоступный товар для бронирования " + booking.getItem().getName(), ex.getMessage());
     }
 
+    @Test
+    void createBookingAfterApprovedBooking() {
+        bookingIntervalIndex.add(booking.getItem().getId(), bookingCreatedDto.getStart().minusHours(2), bookingCreatedDto.getStart());
+        BookingExtendedDto bookingExtendedDto = createBookingDto();
+        Assertions.assertEquals(bookingExtendedDto.getId(), booking.getId());
+        Mockito.verify(bookingRepository, Mockito.never())
+                .existsOverlappingBooking(anyInt(), any(), any(), any(), any());
+    }
+
     @Test
     void approveBooking() {
         Booking approved = new Booking(booking.getId(), booking.getStart(), booking.getEnd(), booking.getItem(), booking.getBooker(), Booking.BookingState.APPROVED);
@@ -154,7 +194,31 @@ class BookingServiceUnitTest {
         BookingExtendedDto returned = bookingService.approveBooking(booking.getId(), true, userDto.getId());
         Assertions.assertEquals(returned.getId(), approved.getId());
         Assertions.assertEquals(returned.getStatus(), approved.getStatus().name());
+        Assertions.assertTrue(bookingIntervalIndex.overlaps(booking.getItem().getId(), booking.getStart(), booking.getEnd()));
+    }
 
+    @Test
+    void rejectBooking() {
+        Mockito.when(bookingRepository.findById(anyInt()))
+                .thenReturn(java.util.Optional.ofNullable(booking));
+        Mockito.when(bookingRepository.save(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        BookingExtendedDto returned = bookingService.approveBooking(booking.getId(), false, userDto.getId());
+        Assertions.assertEquals(Booking.BookingState.REJECTED.name(), returned.getStatus());
+        Assertions.assertFalse(bookingIntervalIndex.overlaps(booking.getItem().getId(), booking.getStart(), booking.getEnd()));
+    }
+
+    @Test
+    void approveBookingOverlappingApproved() {
+        Mockito.when(bookingRepository.findById(anyInt()))
+                .thenReturn(java.util.Optional.ofNullable(booking));
+        Mockito.when(itemRepository.findItemForUpdate(anyInt()))
+                .thenReturn(java.util.Optional.of(booking.getItem()));
+        Mockito.when(bookingRepository.existsOverlappingBooking(anyInt(), any(), any(), any(), any()))
+                .thenReturn(true);
+        ValidationException ex = assertThrows(ValidationException.class, () -> bookingService.approveBooking(booking.getId(), true, userDto.getId()));
+        Assertions.assertEquals("Недоступный товар для бронирования " + booking.getItem().getName(), ex.getMessage());
+        Mockito.verify(bookingRepository, Mockito.never()).save(any());
     }
 
     @Test
@@ -210,7 +274,7 @@ class BookingServiceUnitTest {
     @Test
     void getBookings() {
         createBookingDto();
-        Mockito.when(bookingRepository.findBookingsByBookerIsOrderByStartDesc(any(), any()))
+        Mockito.when(bookingRepository.findBookings(any(), any()))
                 .thenReturn(new PageImpl<>(List.of(booking)));
         List<BookingExtendedDto> returned = bookingService.getBookings(userDto.getId(), null, null, null);
         Assertions.assertEquals(returned.size(), 1);
@@ -218,6 +282,69 @@ class BookingServiceUnitTest {
     }
 
 
+    @Test
+    void getBookingsPageWithNextCursor() {
+        Mockito.when(userService.getUser(Mockito.any()))
+                .thenReturn(userDto);
+        Mockito.when(bookingRepository.findBookings(any(), any()))
+                .thenReturn(new SliceImpl<>(List.of(booking), PageRequest.of(0, 1), true));
+        BookingPageDto returned = bookingService.getBookingsPage(userDto.getId(), null, 0, 1, null);
+        Assertions.assertEquals(1, returned.getBookings().size());
+        Assertions.assertEquals(new PageCursor(booking.getStart(), booking.getId()).encode(), returned.getNextCursor());
+    }
+
+    @Test
+    void getBookingsPageWithCursor() {
+        Mockito.when(userService.getUser(Mockito.any()))
+                .thenReturn(userDto);
+        Mockito.when(bookingRepository.findBookings(any(), any()))
+                .thenReturn(new SliceImpl<>(List.of(booking), PageRequest.of(0, 1), false));
+        String cursor = new PageCursor(booking.getStart().plusDays(1), 10).encode();
+        BookingPageDto returned = bookingService.getBookingsPage(userDto.getId(), Booking.TimeBookingState.ALL.name(), null, 1, cursor);
+        Assertions.assertEquals(1, returned.getBookings().size());
+        Assertions.assertNull(returned.getNextCursor());
+        Mockito.verify(bookingRepository).findBookings(BookingFilter.builder()
+                .role(BookingFilter.Role.BOOKER)
+                .userId(userDto.getId())
+                .timeState(Booking.TimeBookingState.ALL)
+                .cursor(new PageCursor(booking.getStart().plusDays(1), 10))
+                .build(), PageRequest.of(0, 1));
+    }
+
+    @Test
+    void getBookingsPageWithCursorAndStatus() {
+        Mockito.when(userService.getUser(Mockito.any()))
+                .thenReturn(userDto);
+        Mockito.when(bookingRepository.findBookings(any(), any()))
+                .thenReturn(new SliceImpl<>(List.of(booking), PageRequest.of(0, 1), false));
+        String cursor = new PageCursor(booking.getStart(), booking.getId()).encode();
+        bookingService.getBookingsPage(userDto.getId(), Booking.BookingState.WAITING.name(), null, 1, cursor);
+        Mockito.verify(bookingRepository).findBookings(BookingFilter.builder()
+                .role(BookingFilter.Role.BOOKER)
+                .userId(userDto.getId())
+                .status(Booking.BookingState.WAITING)
+                .cursor(new PageCursor(booking.getStart(), booking.getId()))
+                .build(), PageRequest.of(0, 1));
+    }
+
+    @Test
+    void getBookingsPageWithIncorrectCursor() {
+        ValidationException ex = assertThrows(ValidationException.class, () -> bookingService.getBookingsPage(userDto.getId(), null, null, 1, "hello"));
+        Assertions.assertEquals("Некорректное значение курсора hello.", ex.getMessage());
+    }
+
+    @Test
+    void getOwnersBookingsPageWithCursor() {
+        Mockito.when(userService.getUser(Mockito.any()))
+                .thenReturn(userDto);
+        Mockito.when(bookingRepository.findBookings(any(), any()))
+                .thenReturn(new SliceImpl<>(List.of(booking), PageRequest.of(0, 1), true));
+        String cursor = new PageCursor(booking.getStart().plusDays(1), 10).encode();
+        BookingPageDto returned = bookingService.getOwnersBookingsPage(userDto.getId(), null, null, 1, cursor);
+        Assertions.assertEquals(1, returned.getBookings().size());
+        Assertions.assertEquals(new PageCursor(booking.getStart(), booking.getId()).encode(), returned.getNextCursor());
+    }
+
     @Test
     void getBookingsWithIncorrectStartPaginationValue() {
         ValidationException ex = assertThrows(ValidationException.class, () -> bookingService.getBookings(userDto.getId(), "Hello", -1, 20));
@@ -241,7 +368,7 @@ class BookingServiceUnitTest {
     @Test
     void getBookingsWithAllState() {
         createBookingDto();
-        Mockito.when(bookingRepository.findBookingsByBookerIsOrderByStartDesc(any(), any()))
+        Mockito.when(bookingRepository.findBookings(any(), any()))
                 .thenReturn(new PageImpl<>(List.of(booking)));
         List<BookingExtendedDto> returned = bookingService.getBookings(userDto.getId(), Booking.TimeBookingState.ALL.name(), null, null);
         Assertions.assertEquals(returned.size(), 1);
@@ -251,47 +378,55 @@ class BookingServiceUnitTest {
     @Test
     void getBookingsWithPastState() {
         createBookingDto();
-        Mockito.when(bookingRepository.findBookingsByBookerIsAndEndBeforeOrderByStartDesc(any(), any(), any()))
+        Mockito.when(bookingRepository.findBookings(any(), any()))
                 .thenReturn(new PageImpl<>(List.of(booking)));
         List<BookingExtendedDto> returned = bookingService.getBookings(userDto.getId(), Booking.TimeBookingState.PAST.name(), null, null);
         Assertions.assertEquals(returned.size(), 1);
         Assertions.assertEquals(returned.get(0).getId(), booking.getId());
+        verifyFilter(BookingFilter.Role.BOOKER, Booking.TimeBookingState.PAST, null);
     }
 
     @Test
     void getBookingsWithFutureState() {
         createBookingDto();
-        Mockito.when(bookingRepository.findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(any(), any(), any()))
+        Mockito.when(bookingRepository.findBookings(any(), any()))
                 .thenReturn(new PageImpl<>(List.of(booking)));
         List<BookingExtendedDto> returned = bookingService.getBookings(userDto.getId(), Booking.TimeBookingState.FUTURE.name(), null, null);
         Assertions.assertEquals(returned.size(), 1);
         Assertions.assertEquals(returned.get(0).getId(), booking.getId());
+        verifyFilter(BookingFilter.Role.BOOKER, Booking.TimeBookingState.FUTURE, null);
     }
 
     @Test
     void getBookingsWithCurrentState() {
         createBookingDto();
-        Mockito.when(bookingRepository.findBookingsByBookerIsAndStartBeforeAndEndAfterOrderByStartDesc(any(), any(), any(), any()))
+        Mockito.when(bookingRepository.findBookings(any(), any()))
                 .thenReturn(new PageImpl<>(List.of(booking)));
         List<BookingExtendedDto> returned = bookingService.getBookings(userDto.getId(), Booking.TimeBookingState.CURRENT.name(), null, null);
         Assertions.assertEquals(returned.size(), 1);
         Assertions.assertEquals(returned.get(0).getId(), booking.getId());
+        Mockito.verify(bookingRepository).findBookings(
+                Mockito.argThat(filter -> filter.getRole() == BookingFilter.Role.BOOKER
+                        && filter.getTimeState() == Booking.TimeBookingState.CURRENT
+                        && filter.getNow() != null),
+                Mockito.argThat(pageable -> pageable != null && pageable.isPaged()));
     }
 
     @Test
     void getBookingsWithRejectState() {
         createBookingDto();
-        Mockito.when(bookingRepository.findBookingsByBookerIsAndStatusIsOrderByStartDesc(any(), any(), any()))
+        Mockito.when(bookingRepository.findBookings(any(), any()))
                 .thenReturn(new PageImpl<>(List.of(booking)));
         List<BookingExtendedDto> returned = bookingService.getBookings(userDto.getId(), Booking.BookingState.REJECTED.name(), null, null);
         Assertions.assertEquals(returned.size(), 1);
         Assertions.assertEquals(returned.get(0).getId(), booking.getId());
+        verifyFilter(BookingFilter.Role.BOOKER, null, Booking.BookingState.REJECTED);
     }
 
     @Test
     void getBookingsWithCancelStateWithEmptyResult() {
         createBookingDto();
-        Mockito.when(bookingRepository.findBookingsByBookerIsAndStatusIsOrderByStartDesc(any(), any(), any()))
+        Mockito.when(bookingRepository.findBookings(any(), any()))
                 .thenReturn(Page.empty());
         List<BookingExtendedDto> returned = bookingService.getBookings(userDto.getId(), Booking.BookingState.CANCELED.name(), null, null);
         Assertions.assertEquals(returned.size(), 0);
@@ -300,7 +435,7 @@ class BookingServiceUnitTest {
     @Test
     void getBookingsWithEmptyResult() {
         createBookingDto();
-        Mockito.when(bookingRepository.findBookingsByBookerIsAndStartIsAfterOrderByStartDesc(any(), any(), any()))
+        Mockito.when(bookingRepository.findBookings(any(), any()))
                 .thenReturn(Page.empty());
         List<BookingExtendedDto> returned = bookingService.getBookings(userDto.getId(), Booking.TimeBookingState.FUTURE.name(), null, null);
         Assertions.assertEquals(returned.size(), 0);
@@ -309,7 +444,7 @@ class BookingServiceUnitTest {
     @Test
     void getOwnersBookings() {
         createBookingDto();
-        Mockito.when(bookingRepository.findBookingsByItemOwnerIsOrderByStartDesc(any(), any()))
+        Mockito.when(bookingRepository.findBookings(any(), any()))
                 .thenReturn(new PageImpl<>(List.of(booking)));
         List<BookingExtendedDto> returned = bookingService.getOwnersBookings(userDto.getId(), null, null, null);
         Assertions.assertEquals(returned.size(), 1);
@@ -319,51 +454,56 @@ class BookingServiceUnitTest {
     @Test
     void getOwnerBookingsWithAllState() {
         createBookingDto();
-        Mockito.when(bookingRepository.findBookingsByItemOwnerIsOrderByStartDesc(any(), any()))
+        Mockito.when(bookingRepository.findBookings(any(), any()))
                 .thenReturn(new PageImpl<>(List.of(booking)));
         List<BookingExtendedDto> returned = bookingService.getOwnersBookings(userDto.getId(), Booking.TimeBookingState.ALL.name(), null, null);
         Assertions.assertEquals(returned.size(), 1);
         Assertions.assertEquals(returned.get(0).getId(), booking.getId());
+        verifyFilter(BookingFilter.Role.OWNER, Booking.TimeBookingState.ALL, null);
     }
 
     @Test
     void getOwnersBookingsWithPastState() {
         createBookingDto();
-        Mockito.when(bookingRepository.findBookingsByItemOwnerAndEndBeforeOrderByStartDesc(any(), any(), any()))
+        Mockito.when(bookingRepository.findBookings(any(), any()))
                 .thenReturn(new PageImpl<>(List.of(booking)));
         List<BookingExtendedDto> returned = bookingService.getOwnersBookings(userDto.getId(), Booking.TimeBookingState.PAST.name(), null, null);
         Assertions.assertEquals(returned.size(), 1);
         Assertions.assertEquals(returned.get(0).getId(), booking.getId());
+        verifyFilter(BookingFilter.Role.OWNER, Booking.TimeBookingState.PAST, null);
     }
 
     @Test
     void getOwnersBookingsWithCurrentState() {
         createBookingDto();
-        Mockito.when(bookingRepository.findBookingsByItemOwnerIsAndStartBeforeAndEndAfterOrderByStartDesc(any(), any(), any(), any()))
+        Mockito.when(bookingRepository.findBookings(any(), any()))
                 .thenReturn(new PageImpl<>(List.of(booking)));
         List<BookingExtendedDto> returned = bookingService.getOwnersBookings(userDto.getId(), Booking.TimeBookingState.CURRENT.name(), null, null);
         Assertions.assertEquals(returned.size(), 1);
         Assertions.assertEquals(returned.get(0).getId(), booking.getId());
+        verifyFilter(BookingFilter.Role.OWNER, Booking.TimeBookingState.CURRENT, null);
     }
 
     @Test
     void getOwnersBookingsWithFutureState() {
         createBookingDto();
-        Mockito.when(bookingRepository.findBookingsByItemOwnerAndStartAfterOrderByStartDesc(any(), any(), any()))
+        Mockito.when(bookingRepository.findBookings(any(), any()))
                 .thenReturn(new PageImpl<>(List.of(booking)));
         List<BookingExtendedDto> returned = bookingService.getOwnersBookings(userDto.getId(), Booking.TimeBookingState.FUTURE.name(), null, null);
         Assertions.assertEquals(returned.size(), 1);
         Assertions.assertEquals(returned.get(0).getId(), booking.getId());
+        verifyFilter(BookingFilter.Role.OWNER, Booking.TimeBookingState.FUTURE, null);
     }
 
     @Test
     void getOwnersBookingsWithRejectState() {
         createBookingDto();
-        Mockito.when(bookingRepository.findBookingsByItemOwnerIsAndStatusIsOrderByStartDesc(any(), any(), any()))
+        Mockito.when(bookingRepository.findBookings(any(), any()))
                 .thenReturn(new PageImpl<>(List.of(booking)));
         List<BookingExtendedDto> returned = bookingService.getOwnersBookings(userDto.getId(), Booking.BookingState.REJECTED.name(), null, null);
         Assertions.assertEquals(returned.size(), 1);
         Assertions.assertEquals(returned.get(0).getId(), booking.getId());
+        verifyFilter(BookingFilter.Role.OWNER, null, Booking.BookingState.REJECTED);
     }
 
     @Test
@@ -392,4 +532,63 @@ class BookingServiceUnitTest {
         List<BookingExtendedDto> returned = bookingService.getBookingsByItem(1, 2);
         Assertions.assertEquals(returned.size(), 0);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getItemsBookings() {
+        Mockito.when(bookingRepository.findLastAndNextBookings(eq(List.of(1, 2)), any()))
+                .thenReturn(List.of(itemBookingView(10, 1, 5, "LAST"),
+                        itemBookingView(11, 1, 6, "NEXT"),
+                        itemBookingView(12, 2, 7, "NEXT")));
+
+        Map<Integer, ItemBookingsDto> returned = bookingService.getItemsBookings(List.of(1, 2));
+        Assertions.assertEquals(returned.size(), 2);
+        Assertions.assertEquals(returned.get(1).getLastBooking(), new BookingDto(10, 5));
+        Assertions.assertEquals(returned.get(1).getNextBooking(), new BookingDto(11, 6));
+        Assertions.assertNull(returned.get(2).getLastBooking());
+        Assertions.assertEquals(returned.get(2).getNextBooking(), new BookingDto(12, 7));
+    }
+
+    @Test
+    void getItemsBookingsFromSummary() {
+        Mockito.when(bookingRepository.findLastAndNextBookings(eq(List.of(1)), any()))
+                .thenReturn(List.of(itemBookingView(10, 1, 5, "LAST")));
+
+        bookingService.getItemsBookings(List.of(1));
+        Map<Integer, ItemBookingsDto> returned = bookingService.getItemsBookings(List.of(1, 2));
+        Assertions.assertEquals(returned.get(1).getLastBooking(), new BookingDto(10, 5));
+        Assertions.assertEquals(returned.get(2), new ItemBookingsDto());
+        Mockito.verify(bookingRepository).findLastAndNextBookings(eq(List.of(1)), any());
+        Mockito.verify(bookingRepository).findLastAndNextBookings(eq(List.of(2)), any());
+    }
+
+    @Test
+    void getItemsBookingsWithEmptyItems() {
+        Map<Integer, ItemBookingsDto> returned = bookingService.getItemsBookings(List.of());
+        Assertions.assertTrue(returned.isEmpty());
+        Mockito.verify(bookingRepository, Mockito.never()).findLastAndNextBookings(any(), any());
+    }
+
+    private ItemBookingView itemBookingView(Integer id, Integer itemId, Integer bookerId, String kind) {
+        return new ItemBookingView() {
+            @Override
+            public Integer getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public Integer getBookerId() {
+                return bookerId;
+            }
+
+            @Override
+            public String getKind() {
+                return kind;
+            }
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.ItemBookingsDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class ItemBookingsSummaryTest {
+    private ItemBookingsSummary itemBookingsSummary;
+    private ItemBookingsDto bookings;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        itemBookingsSummary = new ItemBookingsSummary(100);
+        bookings = new ItemBookingsDto(new BookingDto(1, 2), new BookingDto(3, 4));
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void putAndGet() {
+        itemBookingsSummary.put(1, bookings, now.plusHours(1), itemBookingsSummary.getVersion());
+        itemBookingsSummary.put(2, new ItemBookingsDto(), null, itemBookingsSummary.getVersion());
+
+        Map<Integer, ItemBookingsDto> returned = itemBookingsSummary.getAll(List.of(1, 2, 3), now);
+        Assertions.assertEquals(returned.size(), 2);
+        Assertions.assertEquals(returned.get(1), bookings);
+        Assertions.assertEquals(returned.get(2), new ItemBookingsDto());
+    }
+
+    @Test
+    void getExpired() {
+        itemBookingsSummary.put(1, bookings, now.plusHours(1), itemBookingsSummary.getVersion());
+
+        Assertions.assertTrue(itemBookingsSummary.getAll(List.of(1), now.plusHours(1)).isEmpty());
+    }
+
+    @Test
+    void evict() {
+        itemBookingsSummary.put(1, bookings, null, itemBookingsSummary.getVersion());
+        itemBookingsSummary.evict(1);
+
+        Assertions.assertTrue(itemBookingsSummary.getAll(List.of(1), now).isEmpty());
+    }
+
+    @Test
+    void putWithStaleVersion() {
+        long version = itemBookingsSummary.getVersion();
+        itemBookingsSummary.evict(2);
+        itemBookingsSummary.put(1, bookings, null, version);
+
+        Assertions.assertTrue(itemBookingsSummary.getAll(List.of(1), now).isEmpty());
+    }
+
+    @Test
+    void sweep() {
+        itemBookingsSummary.put(1, bookings, now.minusSeconds(1), itemBookingsSummary.getVersion());
+        itemBookingsSummary.put(2, bookings, null, itemBookingsSummary.getVersion());
+        itemBookingsSummary.sweep();
+
+        Assertions.assertEquals(itemBookingsSummary.getAll(List.of(1, 2), now.minusDays(1)).keySet(), Set.of(2));
+    }
+
+    @Test
+    void maxSize() {
+        ItemBookingsSummary summary = new ItemBookingsSummary(10);
+        for (int itemId = 1; itemId <= 100; itemId++) {
+            summary.put(itemId, new ItemBookingsDto(), null, summary.getVersion());
+        }
+
+        Assertions.assertEquals(10, summary.getSize());
+    }
+}
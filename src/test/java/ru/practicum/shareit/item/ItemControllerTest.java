@@ -2,27 +2,37 @@ package ru.practicum.shareit.item;
 
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.error.NotFoundException;
 import ru.practicum.shareit.error.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemExtendedDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
+import java.io.InputStream;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -81,7 +91,7 @@ class ItemControllerTest {
 
     @Test
     void searchItems() throws Exception {
-        when(itemService.searchItems(anyString(), anyInt(), anyInt(), anyInt()))
+        when(itemService.searchItems(anyString(), anyInt(), anyInt(), anyInt(), any()))
                 .thenReturn(List.of(itemDto));
 
         mvc.perform(get("/items/search")
@@ -96,6 +106,36 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].description", is(itemDto.getDescription())));
     }
 
+    @Test
+    void searchItemsByRelevance() throws Exception {
+        when(itemService.searchItems(anyString(), anyInt(), anyInt(), anyInt(), eq("relevance")))
+                .thenReturn(List.of(itemDto));
+
+        mvc.perform(get("/items/search")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("text", "item")
+                        .param("from", "0")
+                        .param("size", "1")
+                        .param("sort", "relevance"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(itemDto.getId()), Integer.class));
+    }
+
+    @Test
+    void suggestItemNames() throws Exception {
+        when(itemService.suggestItemNames("it", 5))
+                .thenReturn(List.of(itemDto.getName()));
+
+        mvc.perform(get("/items/suggest")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("prefix", "it")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0]", is(itemDto.getName())));
+    }
+
     @Test
     void createItem() throws Exception {
         when(itemService.createItem(any(), any(), anyInt()))
@@ -127,6 +167,130 @@ class ItemControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void createItems() throws Exception {
+        when(itemService.createItems(anyList(), anyInt()))
+                .thenReturn(List.of(new ItemBatchResultDto(0, itemDto, null),
+                        new ItemBatchResultDto(1, null, "Название не может быть пустым.")));
+
+        mvc.perform(post("/items/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .content(mapper.writeValueAsString(List.of(itemDto, new ItemDto(null, "", "Description", true, null, null))))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].item.id", is(itemDto.getId()), Integer.class))
+                .andExpect(jsonPath("$[1].error", is("Название не может быть пустым.")));
+    }
+
+    @Test
+    void createItemsWithInvalidJson() throws Exception {
+        mvc.perform(post("/items/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .content("[{\"name\": ")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Некорректный JSON.")));
+        mvc.perform(post("/items/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .content(mapper.writeValueAsString(itemDto))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Пакет товаров должен быть массивом JSON.")));
+        verify(itemService, never()).createItems(anyList(), anyInt());
+    }
+
+    @Test
+    void createItemsOverMaxSize() {
+        ItemController controller = new ItemController(itemService, itemRequestService, mapper);
+        ReflectionTestUtils.setField(controller, "batchMaxSize", 2);
+        List<String> chunks = List.of("[", "{}", ",{}", ",{}", ",{}", ",{}", ",{}", "]");
+        AtomicInteger chunksRead = new AtomicInteger();
+        InputStream body = new InputStream() {
+            @Override
+            public int read() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) {
+                if (chunksRead.get() == chunks.size()) {
+                    return -1;
+                }
+                byte[] chunk = chunks.get(chunksRead.getAndIncrement()).getBytes(StandardCharsets.UTF_8);
+                System.arraycopy(chunk, 0, buffer, offset, chunk.length);
+                return chunk.length;
+            }
+        };
+
+        ValidationException ex = assertThrows(ValidationException.class, () -> controller.createItems(body, 1));
+        Assertions.assertEquals("В пакете не может быть больше 2 товаров.", ex.getMessage());
+        Assertions.assertTrue(chunksRead.get() < chunks.size());
+        verify(itemService, never()).createItems(anyList(), anyInt());
+    }
+
+    @Test
+    void createItemsFromNdjson() throws Exception {
+        when(itemService.createItems(anyList(), anyInt()))
+                .thenReturn(List.of(new ItemBatchResultDto(0, itemDto, null),
+                        new ItemBatchResultDto(1, null, "Название не может быть пустым.")));
+        String body = mapper.writeValueAsString(itemDto) + "\n"
+                + "{\"name\": \n"
+                + "\n"
+                + mapper.writeValueAsString(new ItemDto(null, "", "Description", true, null, null)) + "\n";
+
+        mvc.perform(post("/items/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .content(body)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType("application/x-ndjson")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].index", is(0)))
+                .andExpect(jsonPath("$[0].item.id", is(itemDto.getId()), Integer.class))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].error", is("Некорректный JSON.")))
+                .andExpect(jsonPath("$[2].index", is(3)))
+                .andExpect(jsonPath("$[2].error", is("Название не может быть пустым.")));
+        verify(itemService).createItems(argThat(itemDtos -> itemDtos.size() == 2), eq(1));
+    }
+
+    @Test
+    void createItemsFromNdjsonOverMaxSize() {
+        ItemController controller = new ItemController(itemService, itemRequestService, mapper);
+        ReflectionTestUtils.setField(controller, "batchMaxSize", 2);
+        AtomicInteger linesRead = new AtomicInteger();
+        Iterator<String> lines = List.of("{}", "", "{}", "{}", "{}", "{}").iterator();
+        Reader body = new Reader() {
+            @Override
+            public int read(char[] buffer, int offset, int length) {
+                if (!lines.hasNext()) {
+                    return -1;
+                }
+                linesRead.incrementAndGet();
+                char[] line = (lines.next() + "\n").toCharArray();
+                System.arraycopy(line, 0, buffer, offset, line.length);
+                return line.length;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        ValidationException ex = assertThrows(ValidationException.class, () -> controller.createItemsFromNdjson(body, 1));
+        Assertions.assertEquals("В пакете не может быть больше 2 товаров.", ex.getMessage());
+        Assertions.assertEquals(4, linesRead.get());
+        verify(itemService, never()).createItems(anyList(), anyInt());
+    }
+
     @Test
     void updateItem() throws Exception {
         when(itemService.updateItem(any(), anyInt()))
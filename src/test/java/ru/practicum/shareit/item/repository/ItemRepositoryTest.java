@@ -1,5 +1,7 @@
 package ru.practicum.shareit.item.repository;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,10 +10,15 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.utils.PaginationUtils;
 
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
@@ -64,4 +71,38 @@ class ItemRepositoryTest {
         assertThat(items.toList(), hasSize(1));
         assertThat(items.toList(), contains(item1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchIlike() {
+        Item unavailable = new Item(null, "Item3", "Description1", false, user, null);
+        entityManager.persist(unavailable);
+
+        assertThat(itemRepository.searchIlike("ITEM", 100, 0), contains(item1, item2));
+        assertThat(itemRepository.searchIlike("description1", 100, 0), contains(item1));
+        assertThat(itemRepository.searchIlike("item", 1, 1), contains(item2));
+    }
+
+    @Test
+    void findItemAvailability() {
+        assertThat(itemRepository.findItemAvailability(item1.getId()).orElseThrow(),
+                equalTo(new ItemAvailabilityDto(item1.getId(), true, user.getId())));
+        assertThat(itemRepository.findItemAvailability(-1).isEmpty(), equalTo(true));
+    }
+
+    @Test
+    void saveAllInBatches() {
+        entityManager.flush();
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<Item> items = IntStream.range(0, 120)
+                .mapToObj(i -> new Item(null, "Batch" + i, "Description", true, user, null))
+                .collect(Collectors.toList());
+
+        itemRepository.saveAll(items);
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount(), equalTo(120L));
+        assertThat(statistics.getPrepareStatementCount(), lessThan(10L));
+    }
+}
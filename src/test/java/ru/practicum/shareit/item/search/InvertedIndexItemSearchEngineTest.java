@@ -0,0 +1,184 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.shareit.item.dto.ItemTextView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+
+@ExtendWith(MockitoExtension.class)
+class InvertedIndexItemSearchEngineTest {
+    @Mock
+    private ItemRepository itemRepository;
+    private InvertedIndexItemSearchEngine searchEngine;
+    private Map<Integer, Item> items;
+
+    @BeforeEach
+    void setUp() {
+        searchEngine = new InvertedIndexItemSearchEngine(itemRepository, new DatabaseItemSearchEngine(itemRepository),
+                new ItemSearchRanker());
+        items = Stream.of(new Item(1, "Дрель", "Аккумуляторная дрель", true, null, null),
+                        new Item(2, "Отвертка", "Аккумуляторная отвертка", true, null, null),
+                        new Item(3, "Клей Момент", "Тюбик суперклея", true, null, null),
+                        new Item(4, "Дрель ударная", "Старая дрель", false, null, null))
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Mockito.when(itemRepository.streamItemTexts())
+                .thenReturn(items.values().stream().map(this::textView));
+        searchEngine.warmUp();
+    }
+
+    private ItemTextView textView(Item item) {
+        return new ItemTextView() {
+            @Override
+            public Integer getId() {
+                return item.getId();
+            }
+
+            @Override
+            public String getName() {
+                return item.getName();
+            }
+
+            @Override
+            public String getDescription() {
+                return item.getDescription();
+            }
+
+            @Override
+            public Boolean getAvailable() {
+                return item.getAvailable();
+            }
+        };
+    }
+
+    private List<Integer> search(String text, int from, int size) {
+        mockFindAllByIdIn();
+        return searchEngine.search(text, PageRequest.of(from / size, size)).stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+
+    private List<Integer> searchByRelevance(String text, int from, int size) {
+        mockFindAllByIdIn();
+        return searchEngine.searchByRelevance(text, PageRequest.of(from / size, size)).stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+
+    private void mockFindAllByIdIn() {
+        Mockito.lenient().when(itemRepository.findAllByIdIn(anyCollection()))
+                .thenAnswer(invocation -> ((Collection<Integer>) invocation.getArgument(0)).stream()
+                        .map(items::get)
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    void searchBySubstring() {
+        Assertions.assertEquals(List.of(1), search("дРЕл", 0, 10));
+        Assertions.assertEquals(List.of(1, 2), search("аккумулятор", 0, 10));
+        Assertions.assertEquals(List.of(3), search("клей", 0, 10));
+    }
+
+    @Test
+    void searchAcrossWords() {
+        Assertions.assertEquals(List.of(1), search("ная дре", 0, 10));
+        Assertions.assertEquals(List.of(), search("дрель отвертка", 0, 10));
+    }
+
+    @Test
+    void searchWithPaging() {
+        Assertions.assertEquals(List.of(2), search("аккумулятор", 1, 1));
+    }
+
+    @Test
+    void searchAfterUpdateAndDelete() {
+        Item updated = new Item(3, "Клей", "Клей для дерева", true, null, null);
+        items.put(3, updated);
+        searchEngine.itemSaved(updated);
+        Assertions.assertEquals(List.of(3), search("дерев", 0, 10));
+        Assertions.assertEquals(List.of(), search("тюбик", 0, 10));
+
+        searchEngine.itemDeleted(3);
+        Assertions.assertEquals(List.of(), search("клей", 0, 10));
+        Mockito.verify(itemRepository, Mockito.never()).search(anyString(), any());
+    }
+
+    @Test
+    void searchWithoutWordsInDatabase() {
+        Mockito.when(itemRepository.search(anyString(), any()))
+                .thenReturn(new PageImpl<>(List.of(items.get(1))));
+
+        Assertions.assertEquals(List.of(1), search(" - ", 0, 10));
+    }
+
+    @Test
+    void searchByRelevance() {
+        Item drill = new Item(5, "Шуруповерт", "Аккумуляторная дрель-шуруповерт", true, null, null);
+        items.put(5, drill);
+        searchEngine.itemSaved(drill);
+
+        Assertions.assertEquals(List.of(1, 5), searchByRelevance("дрель", 0, 10));
+        Assertions.assertEquals(List.of(5), searchByRelevance("дрель", 1, 1));
+        Assertions.assertEquals(List.of(1, 5), search("дрель", 0, 10));
+    }
+
+    @Test
+    void searchByRelevanceLoadsOnlyPage() {
+        Assertions.assertEquals(List.of(1), searchByRelevance("аккумулятор", 0, 1));
+        Mockito.verify(itemRepository).findAllByIdIn(List.of(1));
+    }
+
+    @Test
+    void searchByRelevanceStopsAtMaxCandidates() {
+        ReflectionTestUtils.setField(searchEngine, "maxCandidates", 2);
+        Item hammerDrill = new Item(6, "Дрель ударная", "Дрель ударная, дрель", true, null, null);
+        Item caseDrill = new Item(7, "Дрель ударная", "Дрель ударная с кейсом, дрель", true, null, null);
+        items.put(6, hammerDrill);
+        items.put(7, caseDrill);
+        searchEngine.itemSaved(hammerDrill);
+        searchEngine.itemSaved(caseDrill);
+
+        Assertions.assertEquals(List.of(), searchByRelevance("ная дрель", 0, 1));
+        Mockito.verify(itemRepository, Mockito.never()).findAllByIdIn(List.of(1));
+    }
+
+    @Test
+    void searchByRelevanceBeyondMaxCandidatesInDatabase() {
+        ReflectionTestUtils.setField(searchEngine, "maxCandidates", 2);
+        Mockito.when(itemRepository.search(anyString(), any()))
+                .thenReturn(new PageImpl<>(List.of(items.get(2))));
+
+        Assertions.assertEquals(List.of(2), searchByRelevance("аккумулятор", 2, 1));
+        Mockito.verify(itemRepository, Mockito.never()).findAllByIdIn(anyCollection());
+    }
+
+    @Test
+    void searchByRelevanceSkipsCandidatesNotMatchingText() {
+        Item hammerDrill = new Item(6, "Дрель ударная", "Дрель ударная, дрель", true, null, null);
+        items.put(6, hammerDrill);
+        searchEngine.itemSaved(hammerDrill);
+
+        Assertions.assertEquals(List.of(1), searchByRelevance("ная дрель", 0, 1));
+        Mockito.verify(itemRepository).findAllByIdIn(List.of(6));
+        Mockito.verify(itemRepository).findAllByIdIn(List.of(1));
+    }
+}
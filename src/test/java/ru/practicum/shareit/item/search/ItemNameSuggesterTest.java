@@ -0,0 +1,67 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.practicum.shareit.item.dto.ItemTextView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+class ItemNameSuggesterTest {
+    private final ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
+    private final ItemNameSuggester suggester = new ItemNameSuggester(itemRepository);
+    private final Item drill = new Item(1, "Дрель", "Аккумуляторная дрель", true, null, null);
+    private final Item jack = new Item(2, "Домкрат", "Гидравлический домкрат", false, null, null);
+
+    private ItemTextView textView(Item item) {
+        return new ItemTextView() {
+            @Override
+            public Integer getId() {
+                return item.getId();
+            }
+
+            @Override
+            public String getName() {
+                return item.getName();
+            }
+
+            @Override
+            public String getDescription() {
+                return item.getDescription();
+            }
+
+            @Override
+            public Boolean getAvailable() {
+                return item.getAvailable();
+            }
+        };
+    }
+
+    @Test
+    void suggestAvailableItemsOnly() {
+        Mockito.when(itemRepository.streamItemTexts())
+                .thenReturn(Stream.of(textView(drill), textView(jack)));
+        suggester.warmUp();
+
+        Assertions.assertEquals(List.of("Дрель"), suggester.suggest("Д", 10));
+        Assertions.assertEquals(List.of(), suggester.suggest("дом", 10));
+    }
+
+    @Test
+    void suggestAfterChanges() {
+        suggester.itemSaved(drill);
+        suggester.itemSaved(new Item(2, "Домкрат", "Гидравлический домкрат", true, null, null));
+        suggester.itemSaved(new Item(1, "Перфоратор", "Аккумуляторная дрель", true, null, null));
+
+        Assertions.assertEquals(List.of("Домкрат"), suggester.suggest("д", 10));
+        Assertions.assertEquals(List.of("Перфоратор"), suggester.suggest("ПЕР", 10));
+
+        suggester.itemDeleted(2);
+        suggester.itemSaved(new Item(1, "Перфоратор", "Аккумуляторная дрель", false, null, null));
+
+        Assertions.assertEquals(List.of(), suggester.suggest("", 10));
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+class ItemSearchCacheTest {
+    private final ItemDto drill = new ItemDto(1, "Дрель", "Аккумуляторная дрель", true, 1, null);
+    private final ItemDto screwdriver = new ItemDto(2, "Отвертка", "Крестовая отвертка", true, 1, null);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private Supplier<List<ItemDto>> loader(ItemDto... items) {
+        return () -> {
+            loads.incrementAndGet();
+            return List.of(items);
+        };
+    }
+
+    @Test
+    void getFromCache() {
+        ItemSearchCache cache = new ItemSearchCache(10, Duration.ofMinutes(1));
+        cache.get("Дрель", 0, 10, ItemSearchSort.ID, loader(drill));
+        List<ItemDto> returned = cache.get("дРЕЛЬ", 0, 10, ItemSearchSort.ID, loader(drill));
+        cache.get("дрель", 0, 10, ItemSearchSort.RELEVANCE, loader(drill));
+
+        Assertions.assertEquals(List.of(drill), returned);
+        Assertions.assertEquals(2, loads.get());
+        Assertions.assertEquals(1, cache.getHitCount());
+        Assertions.assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    void evictOverMaximumSize() {
+        ItemSearchCache cache = new ItemSearchCache(2, Duration.ofMinutes(1));
+        cache.get("дрель", 0, 10, ItemSearchSort.ID, loader(drill));
+        cache.get("отвертка", 0, 10, ItemSearchSort.ID, loader(screwdriver));
+        cache.get("клей", 0, 10, ItemSearchSort.ID, loader());
+
+        Assertions.assertEquals(3, loads.get());
+        Assertions.assertEquals(1, cache.getEvictionCount());
+        Assertions.assertEquals(2, cache.getSize());
+    }
+
+    @Test
+    void invalidateOnItemsCreated() {
+        ItemSearchCache cache = new ItemSearchCache(10, Duration.ofMinutes(1));
+        cache.get("дрель", 0, 10, ItemSearchSort.ID, loader());
+        cache.get("отвертка", 0, 10, ItemSearchSort.ID, loader());
+        cache.get("клей", 0, 10, ItemSearchSort.ID, loader());
+
+        cache.itemsCreated(List.of(drill, screwdriver));
+
+        Assertions.assertEquals(2, cache.getInvalidationCount());
+        Assertions.assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    void evictExpired() {
+        ItemSearchCache cache = new ItemSearchCache(10, Duration.ZERO);
+        cache.get("дрель", 0, 10, ItemSearchSort.ID, loader(drill));
+        Assertions.assertEquals(1, cache.getEvictionCount());
+
+        cache.get("дрель", 0, 10, ItemSearchSort.ID, loader(drill));
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidateAffectedQueries() {
+        ItemSearchCache cache = new ItemSearchCache(10, Duration.ofMinutes(1));
+        cache.get("дрель", 0, 10, ItemSearchSort.ID, loader(drill));
+        cache.get("отвертка", 0, 10, ItemSearchSort.ID, loader(screwdriver));
+        cache.get("перфоратор", 0, 10, ItemSearchSort.ID, loader());
+
+        cache.itemChanged(drill, new ItemDto(1, "Перфоратор", "Мощный", true, 1, null));
+
+        Assertions.assertEquals(1, cache.getSize());
+        Assertions.assertEquals(2, cache.getInvalidationCount());
+        cache.get("отвертка", 0, 10, ItemSearchSort.ID, loader(screwdriver));
+        Assertions.assertEquals(3, loads.get());
+    }
+
+    @Test
+    void invalidateWhenAvailabilityChanged() {
+        ItemSearchCache cache = new ItemSearchCache(10, Duration.ofMinutes(1));
+        ItemDto unavailable = new ItemDto(3, "Дрель", "Старая", false, 1, null);
+        cache.get("дрель", 0, 10, ItemSearchSort.ID, loader(drill));
+
+        cache.itemChanged(unavailable, new ItemDto(3, "Дрель", "Старая", false, 1, null));
+        Assertions.assertEquals(1, cache.getSize());
+
+        cache.itemChanged(unavailable, new ItemDto(3, "Дрель", "Старая", true, 1, null));
+        Assertions.assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    void notCacheResultLoadedBeforeInvalidation() {
+        ItemSearchCache cache = new ItemSearchCache(10, Duration.ofMinutes(1));
+        cache.get("дрель", 0, 10, ItemSearchSort.ID, () -> {
+            cache.itemChanged(null, drill);
+            return List.of();
+        });
+
+        Assertions.assertEquals(0, cache.getSize());
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+class ItemSearchRankerTest {
+    private final ItemSearchRanker itemSearchRanker = new ItemSearchRanker();
+    private final ItemSearchStatistics statistics = new ItemSearchStatistics(10,
+            Map.of("дрель", 3, "ударная", 1), 2, 4);
+
+    @Test
+    void scoreNameAboveDescription() {
+        Assertions.assertTrue(itemSearchRanker.score(Set.of("дрель"), statistics, token -> 1, 1, token -> 0, 2)
+                > itemSearchRanker.score(Set.of("дрель"), statistics, token -> 0, 1, token -> 1, 3));
+    }
+
+    @Test
+    void scoreRareWordAboveFrequent() {
+        ToIntFunction<String> rare = token -> token.equals("ударная") ? 1 : 0;
+        ToIntFunction<String> frequent = token -> token.equals("дрель") ? 1 : 0;
+
+        Assertions.assertTrue(itemSearchRanker.score(Set.of("дрель", "ударная"), statistics, rare, 1, token -> 0, 1)
+                > itemSearchRanker.score(Set.of("дрель", "ударная"), statistics, frequent, 1, token -> 0, 1));
+    }
+
+    @Test
+    void scoreShortFieldAboveLong() {
+        Assertions.assertTrue(itemSearchRanker.score(Set.of("дрель"), statistics, token -> 1, 1, token -> 0, 4)
+                > itemSearchRanker.score(Set.of("дрель"), statistics, token -> 1, 5, token -> 0, 4));
+        Assertions.assertEquals(0, itemSearchRanker.score(Set.of("клей"), statistics, token -> 0, 1, token -> 0, 4));
+    }
+
+    @Test
+    void topIds() {
+        ItemSearchRanker.TopIds topIds = itemSearchRanker.topIds(2);
+        topIds.offer(1, 1.5);
+        topIds.offer(2, 3.0);
+        topIds.offer(3, 2.0);
+        topIds.offer(4, 0.5);
+
+        Assertions.assertEquals(List.of(2, 3), topIds.getIds());
+    }
+
+    @Test
+    void topIdsWithEqualScore() {
+        ItemSearchRanker.TopIds topIds = itemSearchRanker.topIds(2);
+        topIds.offer(3, 1.0);
+        topIds.offer(1, 1.0);
+        topIds.offer(2, 1.0);
+
+        Assertions.assertEquals(List.of(1, 2), topIds.getIds());
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class RadixTrieTest {
+    private final RadixTrie trie = new RadixTrie();
+
+    @Test
+    void findByPrefix() {
+        trie.put("дрель", 1, "Дрель");
+        trie.put("дрель ударная", 2, "Дрель ударная");
+        trie.put("домкрат", 3, "Домкрат");
+        trie.put("отвертка", 4, "Отвертка");
+
+        Assertions.assertEquals(List.of("Домкрат", "Дрель", "Дрель ударная"), trie.findByPrefix("д", 10));
+        Assertions.assertEquals(List.of("Дрель", "Дрель ударная"), trie.findByPrefix("дре", 10));
+        Assertions.assertEquals(List.of("Дрель ударная"), trie.findByPrefix("дрель у", 10));
+        Assertions.assertEquals(List.of("Домкрат"), trie.findByPrefix("д", 1));
+        Assertions.assertEquals(List.of(), trie.findByPrefix("дрт", 10));
+        Assertions.assertEquals(List.of(), trie.findByPrefix("дрель ударная!", 10));
+    }
+
+    @Test
+    void findByPrefixOrdersByWeight() {
+        trie.put("дрель", 1, "Дрель");
+        trie.put("дрель", 2, "Дрель");
+        trie.put("дрель", 3, "Дрель");
+        trie.put("домкрат", 4, "Домкрат");
+        trie.put("дрель ударная", 5, "Дрель ударная");
+        trie.put("дрель ударная", 6, "Дрель ударная");
+        trie.put("диван", 7, "Диван");
+        trie.put("диван", 8, "Диван");
+
+        Assertions.assertEquals(List.of("Дрель", "Диван", "Дрель ударная", "Домкрат"), trie.findByPrefix("д", 10));
+        Assertions.assertEquals(List.of("Дрель", "Диван"), trie.findByPrefix("д", 2));
+        Assertions.assertEquals(List.of("Дрель", "Дрель ударная"), trie.findByPrefix("дре", 10));
+
+        trie.remove("дрель", 1);
+        trie.remove("дрель", 2);
+
+        Assertions.assertEquals(List.of("Диван", "Дрель ударная", "Домкрат", "Дрель"), trie.findByPrefix("д", 10));
+        Assertions.assertEquals(List.of("Дрель ударная", "Дрель"), trie.findByPrefix("дре", 10));
+    }
+
+    @Test
+    void putSplitsNodes() {
+        trie.put("дрель", 1, "Дрель");
+        trie.put("домкрат", 2, "Домкрат");
+
+        Assertions.assertEquals(4, trie.getNodeCount());
+    }
+
+    @Test
+    void putSameKey() {
+        trie.put("дрель", 2, "ДРЕЛЬ");
+        trie.put("дрель", 1, "Дрель");
+
+        Assertions.assertEquals(List.of("Дрель"), trie.findByPrefix("др", 10));
+        Assertions.assertEquals(2, trie.getNodeCount());
+    }
+
+    @Test
+    void removeMergesNodes() {
+        trie.put("дрель", 1, "Дрель");
+        trie.put("домкрат", 2, "Домкрат");
+        trie.put("дрель ударная", 3, "Дрель ударная");
+
+        trie.remove("домкрат", 2);
+        trie.remove("дрель", 1);
+        trie.remove("дрель", 4);
+
+        Assertions.assertEquals(List.of("Дрель ударная"), trie.findByPrefix("д", 10));
+        Assertions.assertEquals(2, trie.getNodeCount());
+
+        trie.remove("дрель ударная", 3);
+
+        Assertions.assertEquals(List.of(), trie.findByPrefix("", 10));
+        Assertions.assertEquals(1, trie.getNodeCount());
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+@ExtendWith(MockitoExtension.class)
+class TrigramItemSearchEngineTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private Connection connection;
+    @Mock
+    private DatabaseMetaData metaData;
+    private final Item item = new Item(1, "Item", "Description", true, null, null);
+
+    private TrigramItemSearchEngine createSearchEngine(String databaseProductName) throws SQLException {
+        Mockito.when(dataSource.getConnection()).thenReturn(connection);
+        Mockito.when(connection.getMetaData()).thenReturn(metaData);
+        Mockito.when(metaData.getDatabaseProductName()).thenReturn(databaseProductName);
+        TrigramItemSearchEngine searchEngine = new TrigramItemSearchEngine(itemRepository,
+                new DatabaseItemSearchEngine(itemRepository), dataSource);
+        searchEngine.init();
+        return searchEngine;
+    }
+
+    @Test
+    void searchInPostgresql() throws SQLException {
+        Mockito.when(itemRepository.searchIlike("item", 10, 20))
+                .thenReturn(List.of(item));
+
+        List<Item> returned = createSearchEngine("PostgreSQL").search("item", PageRequest.of(2, 10));
+        Assertions.assertEquals(List.of(item), returned);
+        Mockito.verify(itemRepository, Mockito.never()).search(anyString(), any());
+    }
+
+    @Test
+    void searchInOtherDatabase() throws SQLException {
+        Mockito.when(itemRepository.search(anyString(), any()))
+                .thenReturn(new PageImpl<>(List.of(item)));
+
+        List<Item> returned = createSearchEngine("H2").search("item", PageRequest.of(0, 10));
+        Assertions.assertEquals(List.of(item), returned);
+        Mockito.verify(connection).close();
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+class TrigramTermIndexTest {
+    private final TrigramTermIndex index = new TrigramTermIndex();
+
+    @Test
+    void findContaining() {
+        index.add("дрель");
+        index.add("аккумуляторная");
+        index.add("ударная");
+        index.add("кг");
+
+        Assertions.assertEquals(Set.of("дрель"), index.findContaining("дрель"));
+        Assertions.assertEquals(Set.of("аккумуляторная", "ударная"), index.findContaining("ная"));
+        Assertions.assertEquals(Set.of("аккумуляторная"), index.findContaining("муляторн"));
+        Assertions.assertEquals(Set.of(), index.findContaining("дрели"));
+        Assertions.assertEquals(Set.of(), index.findContaining("ударнаяя"));
+    }
+
+    @Test
+    void findContainingShortToken() {
+        index.add("дрель");
+        index.add("ударная");
+        index.add("кг");
+
+        Assertions.assertEquals(Set.of("дрель", "ударная"), index.findContaining("р"));
+        Assertions.assertEquals(Set.of("ударная"), index.findContaining("уд"));
+        Assertions.assertEquals(Set.of("кг"), index.findContaining("кг"));
+        Assertions.assertEquals(Set.of("кг"), index.findContaining("г"));
+        Assertions.assertEquals(Set.of(), index.findContaining(""));
+    }
+
+    @Test
+    void remove() {
+        index.add("дрель");
+        index.add("дрели");
+        index.remove("дрель");
+
+        Assertions.assertEquals(Set.of("дрели"), index.findContaining("дре"));
+        Assertions.assertEquals(Set.of(), index.findContaining("рель"));
+        Assertions.assertEquals(3, index.getGramCount());
+    }
+}
@@ -2,19 +2,29 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import org.hamcrest.Matchers;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.error.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemExtendedDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.DatabaseItemSearchEngine;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -24,6 +34,8 @@ import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -38,6 +50,7 @@ class ItemServiceImplTest {
     private final BookingService bookingService;
     private final UserService userService;
     private final ItemService itemService;
+    private final DatabaseItemSearchEngine databaseItemSearchEngine;
     private UserDto itemOwner;
     private ItemDto itemDto;
 
@@ -54,10 +67,7 @@ class ItemServiceImplTest {
         UserDto booker = userService.createUser(userDto);
         bookingService.createBooking(
                 new BookingCreateDto(null, LocalDateTime.now().minusSeconds(2), LocalDateTime.now().minusSeconds(1), itemDto.getId(), booker.getId(), null),
-                new ItemExtendedDto(itemDto.getId(),
-                        itemDto.getName(),
-                        itemDto.getDescription(),
-                        true, itemOwner.getId(), null, null, null, List.of()), booker.getId());
+                new ItemAvailabilityDto(itemDto.getId(), true, itemOwner.getId()), booker.getId());
         CommentDto dto = new CommentDto(null, commentText, itemDto.getId(), booker.getName(), LocalDateTime.now());
         return itemService.createComment(dto, dto.getItemId(), booker.getId());
     }
@@ -75,6 +85,40 @@ class ItemServiceImplTest {
         assertThat(item.getAvailable(), equalTo(itemDto.getAvailable()));
     }
 
+    @Test
+    void createItems() {
+        UserDto requestor = userService.createUser(new UserDto(null, "Requestor", "requestor@mail.ru"));
+        ItemRequestDto request = itemRequestService.createItemRequest(
+                new ItemRequestDto(null, "Нужна пила", requestor.getId(), LocalDateTime.now(), List.of()), requestor.getId());
+
+        List<ItemBatchResultDto> results = itemService.createItems(List.of(
+                new ItemDto(null, "Дрель", "Ударная дрель", true, null, null),
+                new ItemDto(null, "Пила", null, true, null, request.getId()),
+                new ItemDto(null, "Пила", "Ручная пила", true, null, request.getId())), itemOwner.getId());
+
+        assertThat(results.get(1).getError(), equalTo("Описание не может быть пустым."));
+        List<Item> items = entityManager.createQuery("Select i from Item i where i.owner.id = :ownerId order by i.id", Item.class)
+                .setParameter("ownerId", itemOwner.getId())
+                .getResultList();
+        assertThat(items, hasSize(3));
+        assertThat(items.get(2).getId(), equalTo(results.get(2).getItem().getId()));
+        assertThat(items.get(2).getRequest().getId(), equalTo(request.getId()));
+        assertThat(itemService.searchItems("ударная", itemOwner.getId(), 0, 10, null).stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList()), contains(results.get(0).getItem().getId()));
+    }
+
+    @Test
+    void createItemsInJdbcBatches() {
+        List<ItemDto> itemDtos = IntStream.range(0, 200)
+                .mapToObj(i -> new ItemDto(null, "Item" + i, "Description" + i, true, null, null))
+                .collect(Collectors.toList());
+
+        long statements = countRequestStatements(() -> itemService.createItems(itemDtos, itemOwner.getId()));
+
+        assertThat(statements, lessThan(15L));
+    }
+
     @Test
     void updateItem() {
         ItemDto updated = new ItemDto(itemDto.getId(),
@@ -136,6 +180,87 @@ class ItemServiceImplTest {
         assertThat(items.get(0).getId(), equalTo(itemsReturned.get(0).getId()));
     }
 
+    @Test
+    void getItemsWithCommentsOfPageOnly() {
+        CommentDto comment = createCommentDto("Comment", new UserDto(null, "Booker", "booker@mail.ru"));
+        ItemDto secondItem = itemService.createItem(new ItemDto(null,
+                "Item2",
+                "Description2",
+                true, itemOwner.getId(), null), null, itemOwner.getId());
+
+        List<ItemExtendedDto> firstPage = itemService.getItems(itemOwner.getId(), 0, 1);
+        List<ItemExtendedDto> secondPage = itemService.getItems(itemOwner.getId(), 1, 1);
+
+        assertThat(firstPage.size(), equalTo(1));
+        assertThat(firstPage.get(0).getComments().size(), equalTo(1));
+        assertThat(firstPage.get(0).getComments().get(0).getId(), equalTo(comment.getId()));
+        assertThat(secondPage.size(), equalTo(1));
+        assertThat(secondPage.get(0).getId(), equalTo(secondItem.getId()));
+        assertThat(secondPage.get(0).getComments(), empty());
+    }
+
+    @Test
+    void getItemsWithLastAndNextBookings() {
+        UserDto booker = userService.createUser(new UserDto(null, "Booker", "booker@mail.ru"));
+        ItemAvailabilityDto item = new ItemAvailabilityDto(itemDto.getId(), true, itemOwner.getId());
+        LocalDateTime now = LocalDateTime.now();
+        bookingService.createBooking(new BookingCreateDto(null, now.minusSeconds(4), now.minusSeconds(3),
+                itemDto.getId(), booker.getId(), null), item, booker.getId());
+        Integer lastId = bookingService.createBooking(new BookingCreateDto(null, now.minusSeconds(2), now.minusSeconds(1),
+                itemDto.getId(), booker.getId(), null), item, booker.getId()).getId();
+        Integer nextId = bookingService.createBooking(new BookingCreateDto(null, now.plusDays(1), now.plusDays(2),
+                itemDto.getId(), booker.getId(), null), item, booker.getId()).getId();
+        bookingService.createBooking(new BookingCreateDto(null, now.plusDays(2), now.plusDays(3),
+                itemDto.getId(), booker.getId(), null), item, booker.getId());
+        ItemDto secondItem = itemService.createItem(new ItemDto(null,
+                "Item2",
+                "Description2",
+                true, itemOwner.getId(), null), null, itemOwner.getId());
+
+        List<ItemExtendedDto> returned = itemService.getItems(itemOwner.getId(), 0, 10);
+        ItemExtendedDto returnedByOwner = itemService.getItem(itemDto.getId(), itemOwner.getId());
+        ItemExtendedDto returnedByBooker = itemService.getItem(itemDto.getId(), booker.getId());
+
+        assertThat(returned.size(), equalTo(2));
+        assertThat(returned.get(0).getLastBooking().getId(), equalTo(lastId));
+        assertThat(returned.get(0).getNextBooking().getId(), equalTo(nextId));
+        assertThat(returned.get(0).getNextBooking().getBookerId(), equalTo(booker.getId()));
+        assertThat(returned.get(1).getId(), equalTo(secondItem.getId()));
+        assertThat(returned.get(1).getLastBooking(), nullValue());
+        assertThat(returned.get(1).getNextBooking(), nullValue());
+        assertThat(returnedByOwner.getLastBooking().getId(), equalTo(lastId));
+        assertThat(returnedByOwner.getNextBooking().getId(), equalTo(nextId));
+        assertThat(returnedByBooker.getLastBooking(), nullValue());
+        assertThat(returnedByBooker.getNextBooking(), nullValue());
+    }
+
+    @Test
+    void getItemAvailabilityWithoutHistory() {
+        createCommentDto("Comment", new UserDto(null, "Booker", "booker@mail.ru"));
+
+        ItemAvailabilityDto[] returned = new ItemAvailabilityDto[1];
+        long statements = countRequestStatements(() -> returned[0] = itemService.getItemAvailability(itemDto.getId()));
+
+        assertThat(statements, equalTo(1L));
+        assertThat(returned[0], equalTo(new ItemAvailabilityDto(itemDto.getId(), true, itemOwner.getId())));
+        assertThrows(NotFoundException.class, () -> itemService.getItemAvailability(-1));
+    }
+
+    @Test
+    void getItemAfterNewBooking() {
+        UserDto booker = userService.createUser(new UserDto(null, "Booker", "booker@mail.ru"));
+        ItemExtendedDto returned = itemService.getItem(itemDto.getId(), itemOwner.getId());
+        assertThat(returned.getNextBooking(), nullValue());
+
+        Integer nextId = bookingService.createBooking(new BookingCreateDto(null,
+                LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2),
+                itemDto.getId(), booker.getId(), null), itemService.getItemAvailability(itemDto.getId()), booker.getId()).getId();
+
+        returned = itemService.getItem(itemDto.getId(), itemOwner.getId());
+        assertThat(returned.getNextBooking().getId(), equalTo(nextId));
+    }
+
     @Test
     void searchItems() {
         itemDto = itemService.createItem(new ItemDto(null,
@@ -143,7 +268,7 @@ class ItemServiceImplTest {
                 "Description2",
                 true, itemOwner.getId(), null), null, itemOwner.getId());
 
-        List<ItemDto> itemsReturned = itemService.searchItems("item", itemDto.getOwnerId(), 0, 2);
+        List<ItemDto> itemsReturned = itemService.searchItems("item", itemDto.getOwnerId(), 0, 2, null);
         List<Item> items = entityManager.createQuery("select i from Item i " +
                         "where i.available = TRUE and (upper(i.name) like upper(concat('%', :text, '%')) " +
                         "or upper(i.description) like upper(concat('%', :text, '%')))", Item.class)
@@ -153,6 +278,52 @@ class ItemServiceImplTest {
         assertThat(items.get(0).getId(), equalTo(itemsReturned.get(0).getId()));
     }
 
+    @Test
+    void searchItemsSameAsDatabase() {
+        itemService.createItem(new ItemDto(null, "Дрель", "Аккумуляторная дрель", true, itemOwner.getId(), null), null, itemOwner.getId());
+        itemService.createItem(new ItemDto(null, "Отвертка", "Аккумуляторная отвертка", true, itemOwner.getId(), null), null, itemOwner.getId());
+        ItemDto glue = itemService.createItem(new ItemDto(null, "Клей", "Тюбик суперклея", true, itemOwner.getId(), null), null, itemOwner.getId());
+        itemService.updateItem(new ItemDto(glue.getId(), null, "Клей для дерева", null, null, null), itemOwner.getId());
+        itemService.createItem(new ItemDto(null, "Дрель ударная", "Старая дрель", false, itemOwner.getId(), null), null, itemOwner.getId());
+
+        for (String text : List.of("item", "ДРЕЛЬ", "аккум", "ная дре", "тюбик", "дерев", "desc", "-", "hello")) {
+            List<Integer> returned = itemService.searchItems(text, itemOwner.getId(), 0, 10, null).stream()
+                    .map(ItemDto::getId)
+                    .collect(Collectors.toList());
+            List<Integer> expected = databaseItemSearchEngine.search(text, PageRequest.of(0, 10, Sort.by("id"))).stream()
+                    .map(Item::getId)
+                    .collect(Collectors.toList());
+            assertThat(text, returned, equalTo(expected));
+        }
+    }
+
+    @Test
+    void searchItemsByRelevance() {
+        ItemDto byDescription = itemService.createItem(new ItemDto(null, "Набор", "Дрель и отвертка", true, itemOwner.getId(), null), null, itemOwner.getId());
+        ItemDto byName = itemService.createItem(new ItemDto(null, "Дрель", "Аккумуляторная", true, itemOwner.getId(), null), null, itemOwner.getId());
+
+        List<ItemDto> byId = itemService.searchItems("дрель", itemOwner.getId(), 0, 10, "id");
+        List<ItemDto> byRelevance = itemService.searchItems("дрель", itemOwner.getId(), 0, 10, "relevance");
+
+        assertThat(byId.stream().map(ItemDto::getId).collect(Collectors.toList()), contains(byDescription.getId(), byName.getId()));
+        assertThat(byRelevance.stream().map(ItemDto::getId).collect(Collectors.toList()), contains(byName.getId(), byDescription.getId()));
+    }
+
+    @Test
+    void searchItemsAfterUpdate() {
+        assertThat(itemService.searchItems("молоток", itemOwner.getId(), 0, 10, null), empty());
+
+        itemService.updateItem(new ItemDto(itemDto.getId(), "Молоток", null, null, null, null), itemOwner.getId());
+        assertThat(itemService.searchItems("молоток", itemOwner.getId(), 0, 10, null).size(), equalTo(1));
+
+        itemService.updateItem(new ItemDto(itemDto.getId(), null, null, false, null, null), itemOwner.getId());
+        assertThat(itemService.searchItems("молоток", itemOwner.getId(), 0, 10, null), empty());
+
+        itemService.updateItem(new ItemDto(itemDto.getId(), null, null, true, null, null), itemOwner.getId());
+        itemService.deleteItem(itemDto.getId());
+        assertThat(itemService.searchItems("молоток", itemOwner.getId(), 0, 10, null), empty());
+    }
+
     @Test
     void searchItemsWithNotAvailableItem() {
         itemDto = itemService.createItem(new ItemDto(null,
@@ -160,7 +331,7 @@ class ItemServiceImplTest {
                 "Description2",
                 false, itemOwner.getId(), null), null, itemOwner.getId());
 
-        List<ItemDto> itemsReturned = itemService.searchItems("item2", itemDto.getOwnerId(), 0, 2);
+        List<ItemDto> itemsReturned = itemService.searchItems("item2", itemDto.getOwnerId(), 0, 2, null);
         List<Item> items = entityManager.createQuery("select i from Item i " +
                         "where i.available = TRUE and (upper(i.name) like upper(concat('%', :text, '%')) " +
                         "or upper(i.description) like upper(concat('%', :text, '%')))", Item.class)
@@ -177,7 +348,7 @@ class ItemServiceImplTest {
                 "Description2",
                 true, itemOwner.getId(), null), null, itemOwner.getId());
 
-        List<ItemDto> itemsReturned = itemService.searchItems("hello", itemDto.getOwnerId(), 0, 2);
+        List<ItemDto> itemsReturned = itemService.searchItems("hello", itemDto.getOwnerId(), 0, 2, null);
         List<Item> items = entityManager.createQuery("select i from Item i " +
                         "where i.available = TRUE and (upper(i.name) like upper(concat('%', :text, '%')) " +
                         "or upper(i.description) like upper(concat('%', :text, '%')))", Item.class)
@@ -309,4 +480,44 @@ class ItemServiceImplTest {
         assertThat(returnedItems.size(), equalTo(itemsByRequest.size()));
         assertThat(returnedItems.size(), equalTo(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void createItemForRequestWithSingleLookupPerEntity() {
+        UserDto requestor = userService.createUser(new UserDto(null, "Harry", "requestor@mail.ru"));
+        ItemRequestDto itemRequestDto = itemRequestService.createItemRequest(new ItemRequestDto(null, "Hello", requestor.getId(), LocalDateTime.now(), List.of()), requestor.getId());
+
+        long statements = countRequestStatements(() -> {
+            ItemRequestDto request = itemRequestService.getItemRequest(itemRequestDto.getId(), itemOwner.getId());
+            itemService.createItem(new ItemDto(null,
+                    "Item",
+                    "Description",
+                    true, itemOwner.getId(), request.getId()), request, itemOwner.getId());
+        });
+
+        assertThat(statements, equalTo(4L));
+    }
+
+    @Test
+    void createCommentWithSingleLookupPerEntity() {
+        UserDto booker = userService.createUser(new UserDto(null, "Booker", "booker@mail.ru"));
+        bookingService.createBooking(
+                new BookingCreateDto(null, LocalDateTime.now().minusSeconds(2), LocalDateTime.now().minusSeconds(1), itemDto.getId(), booker.getId(), null),
+                new ItemAvailabilityDto(itemDto.getId(), true, itemOwner.getId()), booker.getId());
+
+        long statements = countRequestStatements(() -> itemService.createComment(
+                new CommentDto(null, "Comment", itemDto.getId(), booker.getName(), LocalDateTime.now()), itemDto.getId(), booker.getId()));
+
+        assertThat(statements, equalTo(4L));
+    }
+
+    private long countRequestStatements(Runnable call) {
+        entityManager.flush();
+        entityManager.clear();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        call.run();
+        entityManager.flush();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -9,12 +9,16 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.test.util.ReflectionTestUtils;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingExtendedDto;
+import ru.practicum.shareit.booking.dto.ItemBookingsDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.error.NotFoundException;
 import ru.practicum.shareit.error.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemExtendedDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
@@ -22,12 +26,21 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.DatabaseItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.RequestLookupContext;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
@@ -42,6 +55,8 @@ class ItemServiceUnitTest {
     private UserService userService;
     @Mock
     private BookingService bookingService;
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
     private ItemService itemService;
     private ItemDto itemDto;
     private UserDto userDto;
@@ -57,7 +72,9 @@ class ItemServiceUnitTest {
                 UserMapper.toUser(userDto),
                 null);
         itemDto = ItemMapper.toItemDto(item);
-        itemService = new ItemServiceImpl(itemRepository, commentRepository, userService, bookingService);
+        itemService = new ItemServiceImpl(itemRepository, commentRepository, userService, bookingService,
+                new DatabaseItemSearchEngine(itemRepository), new ItemSearchCache(100, Duration.ofMinutes(1)),
+                new ItemNameSuggester(itemRepository), new RequestLookupContext(), itemRequestRepository);
     }
 
     private ItemDto createItemDto() {
@@ -96,6 +113,57 @@ class ItemServiceUnitTest {
         Assertions.assertEquals("Поле доступности пустое.", ex.getMessage());
     }
 
+    @Test
+    void createItems() {
+        Mockito.when(userService.getUser(Mockito.any()))
+                .thenReturn(userDto);
+        Mockito.when(itemRequestRepository.findAllById(List.of(7)))
+                .thenReturn(List.of());
+        Mockito.when(itemRepository.saveAll(anyList()))
+                .thenAnswer(invocation -> {
+                    List<Item> items = invocation.getArgument(0);
+                    for (int i = 0; i < items.size(); i++) {
+                        items.get(i).setId(10 + i);
+                    }
+                    return items;
+                });
+        List<ItemBatchResultDto> results = itemService.createItems(List.of(
+                new ItemDto(null, "Дрель", "Ударная", true, null, null),
+                new ItemDto(null, "", "Без названия", true, null, null),
+                new ItemDto(null, "Пила", "Для запроса", true, null, 7),
+                new ItemDto(null, "Отвёртка", "Крестовая", false, null, null)), userDto.getId());
+
+        Assertions.assertEquals(4, results.size());
+        Assertions.assertEquals(10, results.get(0).getItem().getId());
+        Assertions.assertEquals(userDto.getId(), results.get(0).getItem().getOwnerId());
+        Assertions.assertEquals("Название не может быть пустым.", results.get(1).getError());
+        Assertions.assertEquals("Запроса с id = 7 не существует.", results.get(2).getError());
+        Assertions.assertEquals(11, results.get(3).getItem().getId());
+        Assertions.assertEquals(List.of(0, 1, 2, 3), results.stream().map(ItemBatchResultDto::getIndex).collect(Collectors.toList()));
+        Mockito.verify(userService, Mockito.times(1)).getUser(userDto.getId());
+        Mockito.verify(itemRepository, Mockito.times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void createItemsOverMaxSize() {
+        ReflectionTestUtils.setField(itemService, "batchMaxSize", 2);
+        List<ItemDto> itemDtos = List.of(itemDto, itemDto, itemDto);
+
+        ValidationException ex = assertThrows(ValidationException.class,
+                () -> itemService.createItems(itemDtos, userDto.getId()));
+        Assertions.assertEquals("В пакете не может быть больше 2 товаров.", ex.getMessage());
+        Mockito.verify(itemRepository, Mockito.never()).saveAll(anyList());
+    }
+
+    @Test
+    void createItemsWithUnknownOwner() {
+        Mockito.when(userService.getUser(Mockito.any()))
+                .thenThrow(new NotFoundException("Пользователя с id = 99 не существует."));
+        assertThrows(NotFoundException.class,
+                () -> itemService.createItems(List.of(itemDto), 99));
+        Mockito.verify(itemRepository, Mockito.never()).saveAll(anyList());
+    }
+
     @Test
     void updateItem() {
         ItemDto created = createItemDto();
@@ -127,14 +195,24 @@ class ItemServiceUnitTest {
                 () -> itemService.getItem(99, userDto.getId()));
     }
 
+    @Test
+    void getItemAvailabilityWithItemNotFound() {
+        Mockito.when(itemRepository.findItemAvailability(99))
+                .thenReturn(Optional.empty());
+
+        NotFoundException ex = assertThrows(NotFoundException.class,
+                () -> itemService.getItemAvailability(99));
+        Assertions.assertEquals("Товара с id = 99 не существует.", ex.getMessage());
+    }
+
     @Test
     void getItems() {
         createItemDto();
-        Mockito.when(commentRepository.findAll())
+        Mockito.when(commentRepository.findCommentByItem_IdInOrderByCreated(List.of(item.getId())))
                 .thenReturn(List.of());
 
-        Mockito.when(bookingService.getOwnersBookings(anyInt(), any(), any(), any()))
-                .thenReturn(List.of());
+        Mockito.when(bookingService.getItemsBookings(List.of(item.getId())))
+                .thenReturn(Map.of(item.getId(), new ItemBookingsDto(new BookingDto(1, 2), null)));
 
         Mockito.when(itemRepository.findAllByOwner_IdIs(anyInt(), any()))
                 .thenReturn(new PageImpl<>(List.of(item)));
@@ -142,8 +220,19 @@ class ItemServiceUnitTest {
         List<ItemExtendedDto> returned = itemService.getItems(userDto.getId(), null, null);
         Assertions.assertEquals(returned.size(), 1);
         Assertions.assertEquals(returned.get(0).getId(), item.getId());
+        Assertions.assertEquals(returned.get(0).getLastBooking(), new BookingDto(1, 2));
+        Assertions.assertNull(returned.get(0).getNextBooking());
+        Mockito.verify(commentRepository, Mockito.never()).findAll();
+    }
 
+    @Test
+    void getItemsWithEmptyPage() {
+        Mockito.when(itemRepository.findAllByOwner_IdIs(anyInt(), any()))
+                .thenReturn(new PageImpl<>(List.of()));
 
+        List<ItemExtendedDto> returned = itemService.getItems(1, 0, 10);
+        Assertions.assertEquals(returned.size(), 0);
+        Mockito.verifyNoInteractions(commentRepository, bookingService);
     }
 
     @Test
@@ -153,7 +242,7 @@ class ItemServiceUnitTest {
         Mockito.when(itemRepository.search(anyString(), any()))
                 .thenReturn(new PageImpl<>(List.of(item)));
 
-        List<ItemDto> returned = itemService.searchItems("item", userDto.getId(), null, null);
+        List<ItemDto> returned = itemService.searchItems("item", userDto.getId(), null, null, null);
         Assertions.assertEquals(returned.size(), 1);
         Assertions.assertEquals(returned.get(0).getId(), item.getId());
     }
@@ -165,13 +254,35 @@ class ItemServiceUnitTest {
         Mockito.when(itemRepository.search(anyString(), any()))
                 .thenReturn(Page.empty());
 
-        List<ItemDto> returned = itemService.searchItems("Hello", userDto.getId(), null, null);
+        List<ItemDto> returned = itemService.searchItems("Hello", userDto.getId(), null, null, null);
         Assertions.assertEquals(returned.size(), 0);
     }
 
+    @Test
+    void searchItemsWithUnknownSort() {
+        ValidationException ex = assertThrows(ValidationException.class,
+                () -> itemService.searchItems("item", userDto.getId(), null, null, "name"));
+        Assertions.assertEquals("Unknown sort: name", ex.getMessage());
+    }
+
+    @Test
+    void suggestItemNames() {
+        createItemDto();
+        List<String> returned = itemService.suggestItemNames(itemDto.getName().substring(0, 2), null);
+        Assertions.assertEquals(List.of(itemDto.getName()), returned);
+        Assertions.assertEquals(0, itemService.suggestItemNames(" ", null).size());
+    }
+
+    @Test
+    void suggestItemNamesWithWrongSize() {
+        ValidationException ex = assertThrows(ValidationException.class,
+                () -> itemService.suggestItemNames("item", 0));
+        Assertions.assertEquals("Некорректное количество подсказок", ex.getMessage());
+    }
+
     @Test
     void searchItemsWithEmptyText() {
-        List<ItemDto> returned = itemService.searchItems("", userDto.getId(), null, null);
+        List<ItemDto> returned = itemService.searchItems("", userDto.getId(), null, null, null);
         Assertions.assertEquals(returned.size(), 0);
     }
 
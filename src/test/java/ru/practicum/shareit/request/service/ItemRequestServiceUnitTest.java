@@ -18,6 +18,7 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.RequestLookupContext;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -43,7 +44,8 @@ class ItemRequestServiceUnitTest {
         userDto = new UserDto(1, "harry", "mail@mail.ru");
         itemRequestDto = new ItemRequestDto(1, "Request", 1, LocalDateTime.now(), List.of());
         itemRequest = ItemRequestMapper.toItemRequest(itemRequestDto, userDto);
-        itemRequestService = new ItemRequestServiceImpl(userService, itemService, itemRequestRepository);
+        itemRequestService = new ItemRequestServiceImpl(userService, itemService, itemRequestRepository,
+                new RequestLookupContext());
     }
 
     ItemRequestDto createItemRequestDto() {
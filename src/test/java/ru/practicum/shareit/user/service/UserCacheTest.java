@@ -0,0 +1,61 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+class UserCacheTest {
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Function<Integer, UserDto> loader = id -> {
+        loads.incrementAndGet();
+        return new UserDto(id, "user" + id, "user" + id + "@mail.ru");
+    };
+
+    @Test
+    void getFromCache() {
+        UserCache cache = new UserCache(10, Duration.ofMinutes(10));
+        cache.get(1, loader);
+        cache.get(2, loader);
+        cache.get(1, loader);
+
+        Assertions.assertEquals(2, loads.get());
+        Assertions.assertEquals(1, cache.getHitCount());
+        Assertions.assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    void evictOverMaximumSize() {
+        UserCache cache = new UserCache(2, Duration.ofMinutes(10));
+        cache.get(1, loader);
+        cache.get(2, loader);
+        cache.get(3, loader);
+
+        Assertions.assertEquals(1, cache.getEvictionCount());
+        Assertions.assertEquals(2, cache.getSize());
+    }
+
+    @Test
+    void evictExpired() {
+        UserCache cache = new UserCache(10, Duration.ZERO);
+        cache.get(1, loader);
+        cache.get(1, loader);
+
+        Assertions.assertEquals(2, loads.get());
+        Assertions.assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    void evict() {
+        UserCache cache = new UserCache(10, Duration.ofMinutes(10));
+        cache.get(1, loader);
+        cache.evict(1);
+        cache.get(1, loader);
+
+        Assertions.assertEquals(2, loads.get());
+    }
+}
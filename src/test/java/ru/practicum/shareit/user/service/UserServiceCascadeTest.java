@@ -0,0 +1,87 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.error.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Удаление пользователя без тестовой транзакции: товары и запросы удаляются каскадом в базе после фиксации,
+ * и кэш второго уровня не должен возвращать их после удаления.
+ */
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class UserServiceCascadeTest {
+    private final UserService userService;
+    private final ItemService itemService;
+    private final ItemRequestService itemRequestService;
+    private final List<Integer> userIds = new ArrayList<>();
+    private UserDto owner;
+    private UserDto requestor;
+
+    @BeforeEach
+    void setUp() {
+        owner = createUser("Owner", "cascade-owner@mail.ru");
+        requestor = createUser("Requestor", "cascade-requestor@mail.ru");
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (Integer userId : userIds) {
+            try {
+                userService.deleteUser(userId);
+            } catch (RuntimeException ignored) {
+                // пользователь уже удалён тестом
+            }
+        }
+    }
+
+    @Test
+    void getItemAfterOwnerDeleted() {
+        ItemDto item = itemService.createItem(new ItemDto(null, "Каскадная дрель", "Ударная", true, owner.getId(), null),
+                null, owner.getId());
+        assertThat(itemService.getItem(item.getId(), requestor.getId()).getId(), equalTo(item.getId()));
+        assertThat(itemService.suggestItemNames("каскад", 10), equalTo(List.of("Каскадная дрель")));
+
+        userService.deleteUser(owner.getId());
+
+        assertThrows(NotFoundException.class, () -> itemService.getItem(item.getId(), requestor.getId()));
+        assertThat(itemService.suggestItemNames("каскад", 10), equalTo(List.of()));
+    }
+
+    @Test
+    void getRequestAndItemAfterRequestorDeleted() {
+        ItemRequestDto request = itemRequestService.createItemRequest(
+                new ItemRequestDto(null, "Нужна дрель", requestor.getId(), null, null), requestor.getId());
+        ItemDto item = itemService.createItem(new ItemDto(null, "Дрель", "Ударная", true, owner.getId(), request.getId()),
+                request, owner.getId());
+        assertThat(itemRequestService.getItemRequest(request.getId(), owner.getId()).getId(), equalTo(request.getId()));
+        assertThat(itemService.getItem(item.getId(), owner.getId()).getId(), equalTo(item.getId()));
+
+        userService.deleteUser(requestor.getId());
+
+        assertThrows(NotFoundException.class, () -> itemRequestService.getItemRequest(request.getId(), owner.getId()));
+        assertThrows(NotFoundException.class, () -> itemService.getItem(item.getId(), owner.getId()));
+    }
+
+    private UserDto createUser(String name, String email) {
+        UserDto user = userService.createUser(new UserDto(null, name, email));
+        userIds.add(user.getId());
+        return user;
+    }
+}
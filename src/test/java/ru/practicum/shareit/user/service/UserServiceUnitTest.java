@@ -10,11 +10,22 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.error.ConflictException;
 import ru.practicum.shareit.error.NotFoundException;
 import ru.practicum.shareit.error.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameSuggester;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.RequestLookupContext;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +36,18 @@ class UserServiceUnitTest {
 
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private Cache secondLevelCache;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private ItemNameSuggester itemNameSuggester;
     private UserService userService;
     private UserDto userDto;
     private User user;
@@ -33,7 +56,9 @@ class UserServiceUnitTest {
     void setUp() {
         userDto = new UserDto(1, "harry", "mail@mail.ru");
         user = UserMapper.toUser(userDto);
-        userService = new UserServiceImpl(userRepository);
+        userService = new UserServiceImpl(userRepository, new UserCache(100, Duration.ofMinutes(10)), new RequestLookupContext(),
+                itemRepository, itemRequestRepository, entityManagerFactory, itemSearchEngine,
+                new ItemSearchCache(100, Duration.ofMinutes(1)), itemNameSuggester);
     }
 
     @Test
@@ -127,6 +152,31 @@ class UserServiceUnitTest {
         assertThrows(ConflictException.class, () -> userService.updateUser(userDto, 1));
     }
 
+    @Test
+    void getUserFromCache() {
+        Mockito.when(userRepository.findById(1))
+                .thenReturn(Optional.of(user));
+        userService.getUser(1);
+        UserDto returned = userService.getUser(1);
+        Assertions.assertEquals(returned, userDto);
+        Mockito.verify(userRepository, Mockito.times(1))
+                .findById(1);
+    }
+
+    @Test
+    void getUserAfterUpdate() {
+        UserDto updated = new UserDto(1, "Updated", userDto.getEmail());
+        Mockito.when(userRepository.findById(1))
+                .thenReturn(Optional.of(user))
+                .thenReturn(Optional.of(UserMapper.toUser(userDto)))
+                .thenReturn(Optional.of(UserMapper.toUser(updated)));
+        Mockito.when(userRepository.save(Mockito.any()))
+                .thenReturn(UserMapper.toUser(updated));
+        userService.getUser(1);
+        userService.updateUser(new UserDto(null, "Updated", null), 1);
+        Assertions.assertEquals(updated, userService.getUser(1));
+    }
+
     @Test
     void getUserWhenUserNotFound() {
         Mockito.when(userRepository.findById(Mockito.any()))
@@ -157,6 +207,26 @@ class UserServiceUnitTest {
                 .deleteById(user.getId());
     }
 
+    @Test
+    void deleteUserEvictsCascadedItemsAndRequests() {
+        Mockito.when(itemRepository.findIdsCascadedByUser(user.getId()))
+                .thenReturn(List.of(5, 6));
+        Mockito.when(itemRequestRepository.findIdsByRequestorId(user.getId()))
+                .thenReturn(List.of(7));
+        Mockito.when(entityManagerFactory.getCache())
+                .thenReturn(secondLevelCache);
+
+        userService.deleteUser(user.getId());
+
+        Mockito.verify(secondLevelCache).evict(Item.class, 5);
+        Mockito.verify(secondLevelCache).evict(Item.class, 6);
+        Mockito.verify(secondLevelCache).evict(ItemRequest.class, 7);
+        Mockito.verify(itemSearchEngine).itemDeleted(5);
+        Mockito.verify(itemSearchEngine).itemDeleted(6);
+        Mockito.verify(itemNameSuggester).itemDeleted(5);
+        Mockito.verify(itemNameSuggester).itemDeleted(6);
+    }
+
     @Test
     void getUsers() {
         Mockito.when(userRepository.findAll())
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.utils;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class MetricsEndpointTest {
+    private final MockMvc mvc;
+
+    @Test
+    void scrapePrometheus() throws Exception {
+        mvc.perform(get("/bookings")
+                        .param("state", "PAST")
+                        .header("X-Sharer-User-Id", -1))
+                .andExpect(status().isNotFound());
+
+        String scrape = mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        List<String> lines = Arrays.asList(scrape.split("\n"));
+        assertThat(lines, hasItem(allOf(
+                startsWith("http_server_requests_seconds_count{"),
+                containsString("uri=\"/bookings\""),
+                containsString("state=\"PAST\""),
+                containsString("result=\"not-found\""))));
+        assertThat(lines, hasItem(allOf(
+                startsWith("shareit_service_seconds_bucket{"),
+                containsString("class=\"UserServiceImpl\""),
+                containsString("result=\"not-found\""))));
+        assertThat(scrape, not(containsString("shareit_service_seconds{")));
+        assertThat(scrape, allOf(
+                containsString("hikaricp_connections_active"),
+                containsString("hibernate_query_executions_total"),
+                containsString("shareit_cache_gets_total{application=\"shareit\",cache=\"users\",result=\"miss\"")));
+    }
+}
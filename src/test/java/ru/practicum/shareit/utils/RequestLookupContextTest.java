@@ -0,0 +1,64 @@
+package ru.practicum.shareit.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+class RequestLookupContextTest {
+    private final RequestLookupContext context = new RequestLookupContext();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private Supplier<String> loader(String value) {
+        return () -> {
+            loads.incrementAndGet();
+            return value;
+        };
+    }
+
+    private void startRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void getOncePerRequest() {
+        startRequest();
+        context.get(String.class, 1, loader("first"));
+        String returned = context.get(String.class, 1, loader("second"));
+        context.get(String.class, 2, loader("third"));
+        context.get(CharSequence.class, 1, loader("fourth"));
+
+        Assertions.assertEquals("first", returned);
+        Assertions.assertEquals(3, loads.get());
+
+        startRequest();
+        Assertions.assertEquals("fifth", context.get(String.class, 1, loader("fifth")));
+    }
+
+    @Test
+    void getAfterEvict() {
+        startRequest();
+        context.get(String.class, 1, loader("first"));
+        context.evict(String.class, 1);
+
+        Assertions.assertEquals("second", context.get(String.class, 1, loader("second")));
+    }
+
+    @Test
+    void getWithoutRequest() {
+        context.get(String.class, 1, loader("first"));
+        context.get(String.class, 1, loader("second"));
+
+        Assertions.assertEquals(2, loads.get());
+    }
+}
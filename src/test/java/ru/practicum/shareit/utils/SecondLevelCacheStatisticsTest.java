@@ -0,0 +1,92 @@
+package ru.practicum.shareit.utils;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.function.Function;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContainingInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Кэш второго уровня заполняется только зафиксированными данными,
+ * поэтому тест работает без откатываемой транзакции и удаляет созданные данные сам.
+ */
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class SecondLevelCacheStatisticsTest {
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final SecondLevelCacheStatistics statistics;
+    private UserDto owner;
+    private ItemDto itemDto;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.createUser(new UserDto(null, "Harry", "cache@mail.ru"));
+        itemDto = itemService.createItem(new ItemDto(null, "Item", "Description", true, owner.getId(), null),
+                null, owner.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemService.deleteItem(itemDto.getId());
+        userService.deleteUser(owner.getId());
+    }
+
+    private <T> T find(Function<EntityManager, T> finder) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return finder.apply(entityManager);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Test
+    void getRegionNames() {
+        assertThat(statistics.getRegionNames(),
+                arrayContainingInAnyOrder(User.CACHE_REGION, Item.CACHE_REGION, ItemRequest.CACHE_REGION));
+    }
+
+    @Test
+    void findItemFromCache() {
+        find(entityManager -> entityManager.find(Item.class, itemDto.getId()));
+        long itemHits = statistics.getHitCount(Item.CACHE_REGION);
+        long userHits = statistics.getHitCount(User.CACHE_REGION);
+
+        Item item = find(entityManager -> entityManager.find(Item.class, itemDto.getId()));
+
+        assertThat(item.getOwner().getId(), equalTo(owner.getId()));
+        assertThat(statistics.getHitCount(Item.CACHE_REGION), equalTo(itemHits + 1));
+        assertThat(statistics.getHitCount(User.CACHE_REGION), equalTo(userHits + 1));
+    }
+
+    @Test
+    void findAfterUpdate() {
+        find(entityManager -> entityManager.find(Item.class, itemDto.getId()));
+
+        itemService.updateItem(new ItemDto(itemDto.getId(), "Updated", null, false, null, null), owner.getId());
+        userService.updateUser(new UserDto(null, "Updated", null), owner.getId());
+
+        Item item = find(entityManager -> entityManager.find(Item.class, itemDto.getId()));
+        assertThat(item.getName(), equalTo("Updated"));
+        assertThat(item.getAvailable(), equalTo(false));
+        assertThat(item.getOwner().getName(), equalTo("Updated"));
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.utils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.error.NotFoundException;
+import ru.practicum.shareit.error.ValidationException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.transaction.Transactional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Transactional
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ServiceMetricsAspectTest {
+    private final MeterRegistry meterRegistry;
+    private final BookingService bookingService;
+    private final UserService userService;
+
+    @Test
+    void timeServiceMethodsByStateAndResult() {
+        UserDto user = userService.createUser(new UserDto(null, "Harry", "mail@mail.ru"));
+        long past = count("BookingServiceImpl", "getBookings", "PAST", MetricTags.OK);
+        long unknownState = count("BookingServiceImpl", "getBookings", "UNKNOWN", MetricTags.VALIDATION);
+        long unknownUser = count("UserServiceImpl", "getUser", MetricTags.NONE, MetricTags.NOT_FOUND);
+
+        bookingService.getBookings(user.getId(), "PAST", 0, 10);
+        assertThrows(ValidationException.class, () -> bookingService.getBookings(user.getId(), "SOON", 0, 10));
+        assertThrows(NotFoundException.class, () -> userService.getUser(-1));
+
+        assertThat(count("BookingServiceImpl", "getBookings", "PAST", MetricTags.OK), equalTo(past + 1));
+        assertThat(count("BookingServiceImpl", "getBookings", "UNKNOWN", MetricTags.VALIDATION), equalTo(unknownState + 1));
+        assertThat(count("UserServiceImpl", "getUser", MetricTags.NONE, MetricTags.NOT_FOUND), equalTo(unknownUser + 1));
+    }
+
+    private long count(String className, String method, String state, String result) {
+        Timer timer = meterRegistry.find(ServiceMetricsAspect.TIMER)
+                .tags("class", className, "method", method, MetricTags.STATE, state, MetricTags.RESULT, result)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+}